@@ -0,0 +1,38 @@
+package spring.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import spring.datajpa.importer.ImportAlreadyRunningException;
+import spring.datajpa.importer.ImportProgress;
+import spring.datajpa.importer.ImportResult;
+import spring.datajpa.importer.MemberCsvImporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RequiredArgsConstructor
+@RestController
+public class ImportController {
+
+    private final MemberCsvImporter memberCsvImporter;
+
+    // ex) curl -X POST -H 'Content-Type: text/csv' --data-binary @members.csv localhost:8080/members/import
+    @PostMapping(value = "/members/import", consumes = "text/csv")
+    // 실행 중인지는 importer 의 compareAndSet 으로만 판단 (미리 확인하면 동시 요청 둘 다 통과할 수 있음)
+    public ResponseEntity<ImportResult> importMembers(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(memberCsvImporter.importCsv(body));
+        } catch (ImportAlreadyRunningException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/members/import/progress")
+    public ResponseEntity<ImportResult> progress() {
+        return ResponseEntity.of(memberCsvImporter.progress().map(ImportProgress::snapshot));
+    }
+}
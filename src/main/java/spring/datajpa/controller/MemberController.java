@@ -1,26 +1,55 @@
 package spring.datajpa.controller;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import spring.datajpa.dto.MemberDto;
+import spring.datajpa.dto.MemberPage;
 import spring.datajpa.entity.Member;
+import spring.datajpa.index.MemberUsernameIndex;
+import spring.datajpa.loader.BatchLoader;
+import spring.datajpa.pool.AdmissionInterceptor;
+import spring.datajpa.pool.Degradable;
+import spring.datajpa.pool.DegradedResponseCache;
 import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.MemberVersion;
+import spring.datajpa.scroll.MemberScroller;
+
+import java.util.*;
 
 @RequiredArgsConstructor
 @RestController
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final ObjectProvider<MemberUsernameIndex> usernameIndex;
+    private final BatchLoader<Long, Member> memberLoader;
+    private final MemberScroller memberScroller;
+    private final DegradedResponseCache<Pageable, MemberPage> degradedPages = new DegradedResponseCache<>(100);
 
     @GetMapping("/members/{id}")
-    public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
+    public String findMember(@PathVariable("id") Long id, WebRequest request) {
+        Optional<MemberVersion> version = memberRepository.findVersionById(id);
+        if (version.isPresent() && request.checkNotModified(MemberVersions.etag(version.get()),
+                MemberVersions.lastModified(version.get().getLastModifiedDate()))) {
+            return null;
+        }
+
+        Member member = memberLoader.load(id).join().orElseThrow();
         return member.getUsername();
     }
 
@@ -29,16 +58,100 @@ public class MemberController {
         return member.getUsername();
     }
 
+    @GetMapping("/members/exists")
+    public boolean exists(@RequestParam("username") String username) {
+        MemberUsernameIndex index = usernameIndex.getIfAvailable();
+        if (index != null && index.isReady()) {
+            return index.exists(username);
+        }
+        return memberRepository.existsByUsername(username);
+    }
+
+    // pool 포화 상태면 마지막으로 만든 같은 page 로 응답 (없으면 503)
+    @Degradable
     @GetMapping("members")
-    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        return memberRepository.findAll(pageable)
-                .map(MemberDto::new);
+    public MemberPage list(@PageableDefault(size = 5) Pageable pageable, WebRequest request) {
+        if (AdmissionInterceptor.isDegraded(request)) {
+            return degradedPages.get(pageable)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+
+        Page<Member> members;
+        if (isConditional(request)) {
+            // id + lastModifiedDate 만 조회해서 비교, 바뀌었을 때만 그 id 들로 entity 조회 (count 는 한 번)
+            List<MemberVersion> versions = memberRepository.findVersionBy(pageable);
+            long totalElements = memberRepository.count();
+            if (request.checkNotModified(MemberVersions.etag(pageable, totalElements, versions),
+                    MemberVersions.lastModified(versions))) {
+                return null;
+            }
+            members = new PageImpl<>(findAllInOrder(versions), pageable, totalElements);
+        } else {
+            // 조건부 요청이 아니면 page 를 읽고 ETag / Last-Modified 헤더만 붙임
+            members = memberRepository.findAll(pageable);
+            List<MemberVersion> versions = MemberVersions.of(members.getContent());
+            request.checkNotModified(MemberVersions.etag(pageable, members.getTotalElements(), versions),
+                    MemberVersions.lastModified(versions));
+        }
+
+        MemberPage page = MemberPage.of(members.map(MemberDto::new));
+        degradedPages.put(pageable, page);
+        return page;
+    }
+
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // version 조회 순서 (= pageable 의 sort) 대로, 그 사이 삭제된 member 는 빠짐
+    private List<Member> findAllInOrder(List<MemberVersion> versions) {
+        Map<Long, Member> byId = new HashMap<>();
+        memberRepository.findAllById(versions.stream().map(MemberVersion::getId).toList())
+                .forEach(member -> byId.put(member.getId(), member));
+        return versions.stream()
+                .map(version -> byId.get(version.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // 첫 요청은 age (+ size), 이후에는 응답의 cursor 만 넘김, 다음 slice 는 미리 조회해 둠
+    @GetMapping("/members/scroll")
+    public MemberPage scroll(@RequestParam(value = "age", required = false) Integer age,
+                             @RequestParam(value = "size", defaultValue = "20") int size,
+                             @RequestParam(value = "cursor", required = false) String cursor) {
+        try {
+            if (cursor != null) {
+                return memberScroller.next(cursor);
+            }
+            if (age == null) {
+                throw new IllegalArgumentException("age or cursor is required");
+            }
+            return memberScroller.scroll(age, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
-    @PostConstruct
+    @DeleteMapping("/members/scroll")
+    public void cancelScroll(@RequestParam("cursor") String cursor) {
+        try {
+            memberScroller.cancel(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // saveAll -> 트랜잭션 하나 + jdbc batch insert, 이미 데이터가 있으면(ddl-auto: update) 생략
+    @EventListener(ApplicationReadyEvent.class)
     public void init() {
+        if (memberRepository.count() > 0) {
+            return;
+        }
+
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAll(members);
     }
 }
@@ -0,0 +1,75 @@
+package spring.datajpa.controller;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.DigestUtils;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberVersion;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// audit 컬럼(lastModifiedDate) 기반 ETag / Last-Modified
+class MemberVersions {
+
+    static final long UNKNOWN = -1L;
+
+    private MemberVersions() {
+    }
+
+    static String etag(MemberVersion version) {
+        return "W/\"" + version.getId() + "-" + lastModified(version.getLastModifiedDate()) + "\"";
+    }
+
+    static String etag(Pageable pageable, long totalElements, List<? extends MemberVersion> versions) {
+        StringBuilder sb = new StringBuilder()
+                .append(pageable.getPageNumber()).append(':')
+                .append(pageable.getPageSize()).append(':')
+                .append(pageable.getSort()).append(':')
+                .append(totalElements);
+        for (MemberVersion version : versions) {
+            sb.append(':').append(version.getId()).append('@').append(lastModified(version.getLastModifiedDate()));
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static long lastModified(List<? extends MemberVersion> versions) {
+        long max = UNKNOWN;
+        for (MemberVersion version : versions) {
+            long lastModified = lastModified(version.getLastModifiedDate());
+            if (lastModified == UNKNOWN) {
+                return UNKNOWN;
+            }
+            max = Math.max(max, lastModified);
+        }
+        return max;
+    }
+
+    // 이미 읽은 entity 로 계산할 때
+    static List<MemberVersion> of(List<Member> members) {
+        return members.stream()
+                .<MemberVersion>map(member -> new Loaded(member.getId(), member.getLastModifiedDate()))
+                .toList();
+    }
+
+    static long lastModified(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return UNKNOWN;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Loaded(Long id, LocalDateTime lastModifiedDate) implements MemberVersion {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getLastModifiedDate() {
+            return lastModifiedDate;
+        }
+    }
+}
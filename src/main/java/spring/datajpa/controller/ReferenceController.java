@@ -0,0 +1,31 @@
+package spring.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import spring.datajpa.snapshot.CachedMember;
+import spring.datajpa.snapshot.CachedTeam;
+import spring.datajpa.snapshot.ReferenceDataCache;
+
+// 자주 읽히는 team / member 요약, ReferenceDataCache 에서 응답 (최대 revalidate-after 만큼 늦게 반영될 수 있음)
+@RequiredArgsConstructor
+@RestController
+public class ReferenceController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    @GetMapping("/teams/{id}")
+    public CachedTeam team(@PathVariable("id") Long id) {
+        return referenceDataCache.team(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/members/{id}/summary")
+    public CachedMember memberSummary(@PathVariable("id") Long id) {
+        return referenceDataCache.member(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,37 @@
+package spring.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import spring.datajpa.report.MemberReports;
+import spring.datajpa.report.MemberScanEngine;
+import spring.datajpa.report.MemberScanRow;
+
+import java.util.Map;
+import java.util.stream.Collector;
+
+@RequiredArgsConstructor
+@RestController
+public class ReportController {
+
+    private final MemberScanEngine memberScanEngine;
+
+    @GetMapping("/reports/members/average-age-by-team")
+    public Map<String, Double> averageAgeByTeam() {
+        return memberScanEngine.scan(MemberReports.averageAgeByTeam());
+    }
+
+    @GetMapping("/reports/members/age-buckets")
+    public Map<Integer, Long> ageBuckets(@RequestParam(value = "size", defaultValue = "10") int size) {
+        Collector<MemberScanRow, ?, Map<Integer, Long>> reducer;
+        try {
+            reducer = MemberReports.countByAgeBucket(size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return memberScanEngine.scan(reducer);
+    }
+}
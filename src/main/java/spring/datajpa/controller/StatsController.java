@@ -0,0 +1,51 @@
+package spring.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import spring.datajpa.entity.AgeBucketStats;
+import spring.datajpa.entity.TeamAgeStats;
+import spring.datajpa.repository.AgeBucketStatsRepository;
+import spring.datajpa.repository.TeamAgeStatsRepository;
+import spring.datajpa.stats.MemberStatsService;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@RestController
+public class StatsController {
+
+    private final MemberStatsService memberStatsService;
+    private final TeamAgeStatsRepository teamAgeStatsRepository;
+    private final AgeBucketStatsRepository ageBucketStatsRepository;
+
+    // 조회만 함, stale 한 min/max 는 MemberStatsService.refreshStale() 이 주기적으로 채움
+    @GetMapping("/stats/teams/{teamId}")
+    public TeamAgeStats teamStats(@PathVariable("teamId") Long teamId) {
+        return teamAgeStatsRepository.findById(teamId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/stats/age-buckets")
+    public List<AgeBucketStats> ageBuckets() {
+        // shard 가 여러 개면 구간마다 shard 수 만큼의 row
+        return ageBucketStatsRepository.findAll(Sort.by("bucketStart")).stream()
+                .collect(Collectors.toMap(AgeBucketStats::getBucketStart, Function.identity(), AgeBucketStats::merge, TreeMap::new))
+                .values()
+                .stream()
+                .toList();
+    }
+
+    @PostMapping("/stats/rebuild")
+    public void rebuild() {
+        memberStatsService.rebuild();
+    }
+}
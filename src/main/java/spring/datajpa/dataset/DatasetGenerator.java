@@ -0,0 +1,132 @@
+package spring.datajpa.dataset;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.index.UsernameIndexUpdates;
+import spring.datajpa.stats.MemberStatsService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// 같은 spec(seed) 이면 같은 데이터, entity/persistence context 를 거치지 않고 jdbc batch insert
+@RequiredArgsConstructor
+@Component
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String CREATED_BY = "dataset";
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberStatsService memberStatsService;
+    private final ObjectProvider<UsernameIndexUpdates> usernameIndexes;
+
+    public DatasetResult generate(DatasetSpec spec) {
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(spec.seed());
+
+        long firstTeamId = nextId("team", "team_id");
+        long lastTeamId = firstTeamId + spec.teams() - 1;
+        insertTeams(spec, firstTeamId);
+        restartSequence("team_seq", lastTeamId);
+
+        long firstMemberId = nextId("member", "member_id");
+        long lastMemberId = firstMemberId + spec.members() - 1;
+        usernameIndexes.forEach(UsernameIndexUpdates::invalidate);
+        insertMembers(spec, random, firstMemberId, firstTeamId);
+        restartSequence("member_seq", lastMemberId);
+
+        insertItems(spec);
+
+        // jdbc 로 넣은 데이터는 entity listener 를 거치지 않음
+        memberStatsService.rebuild();
+        usernameIndexes.forEach(UsernameIndexUpdates::load);
+
+        return new DatasetResult(firstTeamId, lastTeamId, firstMemberId, lastMemberId, spec.items(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void insertTeams(DatasetSpec spec, long firstTeamId) {
+        String sql = "insert into team (team_id, version, name, created_date, last_modified_date) values (?, 0, ?, ?, ?)";
+        Timestamp createdDate = Timestamp.valueOf(BASE_TIME);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < spec.teams(); i++) {
+            batch.add(new Object[]{firstTeamId + i, "team" + spec.seed() + "_" + i, createdDate, createdDate});
+            flushIfFull(sql, batch);
+        }
+        flush(sql, batch);
+    }
+
+    private void insertMembers(DatasetSpec spec, SplittableRandom random, long firstMemberId, long firstTeamId) {
+        String sql = "insert into member (member_id, version, username, age, team_id, created_date, last_modified_date, created_by, last_modified_by)" +
+                " values (?, 0, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long i = 0; i < spec.members(); i++) {
+            Timestamp createdDate = Timestamp.valueOf(BASE_TIME.plusSeconds(i));
+            batch.add(new Object[]{
+                    firstMemberId + i,
+                    "member" + spec.seed() + "_" + i,
+                    random.nextInt(spec.maxAge() + 1),
+                    firstTeamId + teamIndex(spec, random),
+                    createdDate,
+                    createdDate,
+                    CREATED_BY,
+                    CREATED_BY
+            });
+            flushIfFull(sql, batch);
+        }
+        flush(sql, batch);
+    }
+
+    private void insertItems(DatasetSpec spec) {
+        String sql = "insert into item (id, created_date) values (?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < spec.items(); i++) {
+            batch.add(new Object[]{"item" + spec.seed() + "_" + i, Timestamp.valueOf(BASE_TIME.plusSeconds(i))});
+            flushIfFull(sql, batch);
+        }
+        flush(sql, batch);
+    }
+
+    private static int teamIndex(DatasetSpec spec, SplittableRandom random) {
+        if (spec.teamSkew() == 0) {
+            return random.nextInt(spec.teams());
+        }
+        int index = (int) (spec.teams() * Math.pow(random.nextDouble(), 1 + spec.teamSkew()));
+        return Math.min(index, spec.teams() - 1);
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch) {
+        if (batch.size() == BATCH_SIZE) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+        batch.clear();
+    }
+
+    private long nextId(String table, String idColumn) {
+        Long max = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // 직접 넣은 id 이후부터 hibernate 가 할당하도록 (pooled optimizer 가 increment 만큼 앞 id 를 쓰므로 여유를 둔다)
+    private void restartSequence(String sequence, long lastId) {
+        List<Long> increment = jdbcTemplate.queryForList(
+                "select increment from information_schema.sequences where lower(sequence_name) = ?", Long.class, sequence);
+        long restartWith = lastId + (increment.isEmpty() ? 1 : increment.get(0)) + 1;
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + restartWith);
+    }
+}
@@ -0,0 +1,4 @@
+package spring.datajpa.dataset;
+
+public record DatasetResult(long firstTeamId, long lastTeamId, long firstMemberId, long lastMemberId, int items, long elapsedMillis) {
+}
@@ -0,0 +1,43 @@
+package spring.datajpa.dataset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// ex) --datajpa.dataset.members=10000000 --datajpa.dataset.teams=100000 --datajpa.dataset.team-skew=1.5
+@Slf4j
+@ConditionalOnProperty(name = "datajpa.dataset.members")
+@RequiredArgsConstructor
+@Component
+public class DatasetRunner implements ApplicationRunner {
+
+    private final DatasetGenerator datasetGenerator;
+
+    @Value("${datajpa.dataset.seed:42}")
+    private long seed;
+
+    @Value("${datajpa.dataset.teams:100}")
+    private int teams;
+
+    @Value("${datajpa.dataset.members}")
+    private long members;
+
+    @Value("${datajpa.dataset.items:0}")
+    private int items;
+
+    @Value("${datajpa.dataset.team-skew:0}")
+    private double teamSkew;
+
+    @Value("${datajpa.dataset.max-age:100}")
+    private int maxAge;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        DatasetResult result = datasetGenerator.generate(new DatasetSpec(seed, teams, members, items, teamSkew, maxAge));
+        log.info("dataset generated: {}", result);
+    }
+}
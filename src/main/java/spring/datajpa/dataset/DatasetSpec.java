@@ -0,0 +1,11 @@
+package spring.datajpa.dataset;
+
+// teamSkew 0 이면 team 균등 분포, 클수록 앞쪽 team 에 member 가 몰림
+public record DatasetSpec(long seed, int teams, long members, int items, double teamSkew, int maxAge) {
+
+    public DatasetSpec {
+        if (teams < 1 || members < 0 || items < 0 || teamSkew < 0 || maxAge < 1) {
+            throw new IllegalArgumentException("invalid dataset spec: " + this);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package spring.datajpa.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+// Page/Slice 대신 내려주는 응답 형식 (README 참고), Pageable/Sort 객체는 내려주지 않음
+@Getter
+@JsonSerialize(using = MemberPageSerializer.class)
+public class MemberPage {
+
+    private final List<MemberDto> content;
+    private final int number;
+    private final int size;
+    private final boolean hasNext;
+    private final Long totalElements;
+    private final String cursor;
+
+    public MemberPage(List<MemberDto> content, int number, int size, boolean hasNext, Long totalElements, String cursor) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.totalElements = totalElements;
+        this.cursor = cursor;
+    }
+
+    public static MemberPage of(Slice<MemberDto> slice) {
+        return of(slice, null);
+    }
+
+    public static MemberPage of(Slice<MemberDto> slice, String cursor) {
+        Long totalElements = slice instanceof Page<MemberDto> page ? page.getTotalElements() : null;
+        return new MemberPage(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), totalElements, cursor);
+    }
+}
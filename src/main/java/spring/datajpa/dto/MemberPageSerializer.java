@@ -0,0 +1,72 @@
+package spring.datajpa.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// reflection/bean introspection 없이 generator 로 바로 씀, field 이름은 미리 encode
+public class MemberPageSerializer extends StdSerializer<MemberPage> {
+
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString TEAM_NAME = new SerializedString("teamName");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString HAS_NEXT = new SerializedString("hasNext");
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializedString CURSOR = new SerializedString("cursor");
+
+    public MemberPageSerializer() {
+        super(MemberPage.class);
+    }
+
+    @Override
+    public void serialize(MemberPage page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeFieldName(CONTENT);
+        gen.writeStartArray();
+        for (MemberDto member : page.getContent()) {
+            writeMember(member, gen);
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(page.getNumber());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.getSize());
+        gen.writeFieldName(HAS_NEXT);
+        gen.writeBoolean(page.isHasNext());
+        if (page.getTotalElements() != null) {
+            gen.writeFieldName(TOTAL_ELEMENTS);
+            gen.writeNumber(page.getTotalElements());
+        }
+        if (page.getCursor() != null) {
+            gen.writeFieldName(CURSOR);
+            gen.writeString(page.getCursor());
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static void writeMember(MemberDto member, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        if (member.getId() != null) {
+            gen.writeFieldName(ID);
+            gen.writeNumber(member.getId());
+        }
+        if (member.getUsername() != null) {
+            gen.writeFieldName(USERNAME);
+            gen.writeString(member.getUsername());
+        }
+        if (member.getTeamName() != null) {
+            gen.writeFieldName(TEAM_NAME);
+            gen.writeString(member.getTeamName());
+        }
+        gen.writeEndObject();
+    }
+}
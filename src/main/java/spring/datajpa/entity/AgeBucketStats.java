@@ -0,0 +1,46 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+// 나이 구간(bucketStart ~ bucketStart + 9) 별 요약, MemberStatsService 가 갱신
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Immutable
+@Entity
+public class AgeBucketStats {
+
+    @Id
+    private Integer bucketStart;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    private AgeBucketStats(Integer bucketStart, long memberCount, long ageSum, Integer minAge, Integer maxAge) {
+        this.bucketStart = bucketStart;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    // 같은 구간의 shard 별 row 를 합침, 어느 한쪽의 min/max 가 stale(null) 이면 null
+    public AgeBucketStats merge(AgeBucketStats other) {
+        return new AgeBucketStats(bucketStart, memberCount + other.memberCount, ageSum + other.ageSum,
+                minAge == null || other.minAge == null ? null : Math.min(minAge, other.minAge),
+                maxAge == null || other.maxAge == null ? null : Math.max(maxAge, other.maxAge));
+    }
+
+    public double getAverageAge() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+}
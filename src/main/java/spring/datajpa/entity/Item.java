@@ -7,6 +7,7 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import spring.datajpa.id.TimeOrderedIds;
 
 import java.time.LocalDateTime;
 
@@ -29,6 +30,11 @@ public class Item implements Persistable<String> {
         this.id = id;
     }
 
+    // 시간 순 UUIDv7 id, insert 전에 id 가 정해지므로 isNew() 는 그대로 createdDate 기준
+    public static Item create() {
+        return new Item(TimeOrderedIds.nextString());
+    }
+
     @Override
     public String getId() {
         return id;
@@ -0,0 +1,56 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// job 의 partition 별 진행 위치, chunk 의 변경과 같은 트랜잭션에서 갱신 -> 실패 후 마지막 commit 된 chunk 다음부터 재개
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "lastId", "maxId", "processed", "completed"})
+@Table(indexes = @Index(name = "idx_job_checkpoint_job_name", columnList = "jobName"))
+@Entity
+public class JobCheckpoint extends BaseTimeEntity {
+
+    // jobName#partition
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String jobName;
+
+    private int partitionNo;
+
+    // 이 id 까지 처리됨 (다음 chunk 는 lastId 초과)
+    private long lastId;
+
+    // partition 의 마지막 id (시작 시점에 고정)
+    private long maxId;
+
+    private long processed;
+
+    private boolean completed;
+
+    public JobCheckpoint(String jobName, int partitionNo, long lastId, long maxId) {
+        this.id = jobName + "#" + partitionNo;
+        this.jobName = jobName;
+        this.partitionNo = partitionNo;
+        this.lastId = lastId;
+        this.maxId = maxId;
+    }
+
+    public void advance(long lastId, int count) {
+        this.lastId = lastId;
+        this.processed += count;
+    }
+
+    public void complete() {
+        this.completed = true;
+    }
+}
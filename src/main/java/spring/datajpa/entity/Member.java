@@ -2,6 +2,13 @@ package spring.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+import spring.datajpa.dto.MemberDto;
+import spring.datajpa.index.MemberIndexListener;
+import spring.datajpa.outbox.OutboxListener;
+import spring.datajpa.snapshot.ReferenceDataListener;
+import spring.datajpa.stats.MemberStatsListener;
 
 @Setter
 @Getter
@@ -12,14 +19,36 @@ import lombok.*;
         query = "select m from Member m where m.username = :username"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@SqlResultSetMapping(
+        name = "MemberDtoMapping",
+        classes = @ConstructorResult(
+                targetClass = MemberDto.class,
+                columns = {
+                        @ColumnResult(name = "id", type = Long.class),
+                        @ColumnResult(name = "username", type = String.class),
+                        @ColumnResult(name = "teamName", type = String.class)
+                }
+        )
+)
+@EntityListeners({MemberIndexListener.class, MemberStatsListener.class, OutboxListener.class, ReferenceDataListener.class})
+@Table(indexes = @Index(name = "idx_member_age", columnList = "age"))
 @Entity
 public class Member extends BaseEntity {
 
+    // member_seq 한번에 1000 개씩 할당 (pooled optimizer) -> insert 마다 db 에 다녀오지 않음
     @Column(name = "member_id")
-    @GeneratedValue
+    @SequenceGenerator(name = "member_seq", sequenceName = "member_seq", allocationSize = 1000)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
     @Id
     private Long id;
 
+    // update ... where version = ? (optimistic lock), jdbc 로 직접 넣은 row 는 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     private String username;
 
     private int age;
@@ -28,6 +57,19 @@ public class Member extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     private Team team;
 
+    // listener 가 변경 전 값을 알 수 있도록 load/flush 시점의 값 보관
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String loadedUsername;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private int loadedAge;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Long loadedTeamId;
+
     public Member(String username) {
         this.username = username;
     }
@@ -45,9 +87,28 @@ public class Member extends BaseEntity {
         }
     }
 
+    // Team.members 를 초기화하지 않고 양쪽을 맞춤
+    // - 이전 team: members 가 이미 로딩된 경우에만 제거 (아니면 나중에 db 에서 읽을 때 반영됨)
+    // - 새 team: 로딩 전의 PersistentBag 은 add 를 queue 에만 넣고 나중에 members 를 읽을 때 합침 (inverse 컬렉션)
+    //   team 이 아직 초기화 안 된 proxy 면 members 자체가 없으므로 건드리지 않음
     public void changeTeam(Team team) {
+        if (this.team != null && Hibernate.isInitialized(this.team) && Hibernate.isInitialized(this.team.getMembers())) {
+            this.team.getMembers().remove(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        if (team != null && Hibernate.isInitialized(team)) {
+            team.getMembers().add(this);
+        }
+    }
+
+    // entity 자신의 callback 은 @EntityListeners 다음에 호출됨 -> listener 는 항상 변경 전 값을 봄
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void markLoaded() {
+        this.loadedUsername = username;
+        this.loadedAge = age;
+        this.loadedTeamId = team == null ? null : team.getId();
     }
 
 }
@@ -0,0 +1,35 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// OutboxWriter 가 변경과 같은 트랜잭션에서 jdbc 로 insert, OutboxPublisher 가 발행 후 delete (entity 로는 조회만)
+// 변경 내용은 싣지 않고 (aggregate, id, 종류) 만 기록 -> 소비자는 필요하면 현재 상태를 조회
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Immutable
+@Entity
+public class OutboxEvent {
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false)
+    private LocalDateTime createdDate;
+}
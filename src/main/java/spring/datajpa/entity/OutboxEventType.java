@@ -0,0 +1,5 @@
+package spring.datajpa.entity;
+
+public enum OutboxEventType {
+    CREATED, UPDATED, DELETED
+}
@@ -2,6 +2,10 @@ package spring.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
+import spring.datajpa.outbox.OutboxListener;
+import spring.datajpa.snapshot.ReferenceDataListener;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,16 +14,26 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@EntityListeners({OutboxListener.class, ReferenceDataListener.class})
 @Entity
-public class Team {
+public class Team extends BaseTimeEntity {
 
     @Column(name = "team_id")
-    @GeneratedValue
+    @SequenceGenerator(name = "team_seq", sequenceName = "team_seq", allocationSize = 1000)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq")
     @Id
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     private String name;
 
+    // member 가 들어오고 나가는 건 Member.version 으로 충분, team 의 version 까지 올리면 같은 team 의 변경끼리 충돌
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,33 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+// MemberStatsService 가 jdbc 로 증분 갱신하는 요약 테이블 (entity 로는 조회만)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Immutable
+@Entity
+public class TeamAgeStats {
+
+    @Column(name = "team_id")
+    @Id
+    private Long teamId;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    public double getAverageAge() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+}
@@ -0,0 +1,8 @@
+package spring.datajpa.importer;
+
+public class ImportAlreadyRunningException extends IllegalStateException {
+
+    public ImportAlreadyRunningException() {
+        super("member import already running");
+    }
+}
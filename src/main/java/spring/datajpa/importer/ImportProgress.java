@@ -0,0 +1,48 @@
+package spring.datajpa.importer;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 진행 중인 import 의 카운터 (import thread 가 갱신, 다른 thread 에서 조회)
+public class ImportProgress {
+
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong createdTeams = new AtomicLong();
+    private final List<ImportResult.BadRow> badRows = new ArrayList<>();
+    @Getter
+    private volatile boolean done;
+
+    void row() {
+        rows.incrementAndGet();
+    }
+
+    void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void teamCreated() {
+        createdTeams.incrementAndGet();
+    }
+
+    synchronized void failed(long line, String content, String reason) {
+        failed.incrementAndGet();
+        if (badRows.size() < MemberCsvImporter.MAX_BAD_ROWS) {
+            badRows.add(new ImportResult.BadRow(line, content, reason));
+        }
+    }
+
+    void finish() {
+        done = true;
+    }
+
+    public synchronized ImportResult snapshot() {
+        return new ImportResult(rows.get(), imported.get(), failed.get(), createdTeams.get(), List.copyOf(badRows),
+                System.currentTimeMillis() - startedAt);
+    }
+}
@@ -0,0 +1,11 @@
+package spring.datajpa.importer;
+
+import java.util.List;
+
+// badRows 는 앞에서부터 최대 MemberCsvImporter.MAX_BAD_ROWS 개만 (failed 는 전체 개수)
+public record ImportResult(long rows, long imported, long failed, long createdTeams, List<BadRow> badRows,
+                           long elapsedMillis) {
+
+    public record BadRow(long line, String content, String reason) {
+    }
+}
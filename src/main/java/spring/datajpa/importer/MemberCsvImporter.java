@@ -0,0 +1,247 @@
+package spring.datajpa.importer;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.stereotype.Component;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.OutboxEventType;
+import spring.datajpa.entity.Team;
+import spring.datajpa.index.MemberUsernameIndex;
+import spring.datajpa.index.UsernameSearchIndex;
+import spring.datajpa.outbox.OutboxWriter;
+import spring.datajpa.stats.MemberStatsService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+// csv (username,age,teamName) 를 StatelessSession 으로 insert -> persistence context / dirty checking 없음, heap 은 chunk 크기만큼만
+// entity listener 를 거치지 않으므로 audit 은 AuditingHandler 로 직접, outbox 는 같은 트랜잭션에 batch insert,
+// 요약 테이블 / username index 는 끝난 뒤 다시 계산
+@Slf4j
+@Component
+public class MemberCsvImporter {
+
+    static final int MAX_BAD_ROWS = 100;
+    private static final String HEADER = "username,age,teamName";
+    private static final int PROGRESS_INTERVAL = 100_000;
+
+    private final SessionFactory sessionFactory;
+    private final ObjectProvider<AuditingHandler> auditingHandler;
+    private final OutboxWriter outboxWriter;
+    private final MemberStatsService memberStatsService;
+    private final ObjectProvider<MemberUsernameIndex> usernameIndex;
+    private final ObjectProvider<UsernameSearchIndex> usernameSearchIndex;
+    private final int batchSize;
+    private final int chunkSize;
+
+    private final AtomicReference<ImportProgress> current = new AtomicReference<>();
+
+    public MemberCsvImporter(EntityManagerFactory entityManagerFactory,
+                             ObjectProvider<AuditingHandler> auditingHandler,
+                             OutboxWriter outboxWriter,
+                             MemberStatsService memberStatsService,
+                             ObjectProvider<MemberUsernameIndex> usernameIndex,
+                             ObjectProvider<UsernameSearchIndex> usernameSearchIndex,
+                             @Value("${datajpa.import.batch-size:1000}") int batchSize,
+                             @Value("${datajpa.import.chunk-size:10000}") int chunkSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.auditingHandler = auditingHandler;
+        this.outboxWriter = outboxWriter;
+        this.memberStatsService = memberStatsService;
+        this.usernameIndex = usernameIndex;
+        this.usernameSearchIndex = usernameSearchIndex;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    // 마지막 (또는 진행 중인) import
+    public Optional<ImportProgress> progress() {
+        return Optional.ofNullable(current.get());
+    }
+
+    // 한 번에 하나만 실행, chunk 단위 commit -> 실패하면 그 전 chunk 까지는 반영된 상태
+    public ImportResult importCsv(InputStream in) throws IOException {
+        ImportProgress previous = current.get();
+        ImportProgress progress = new ImportProgress();
+        if (previous != null && !previous.isDone() || !current.compareAndSet(previous, progress)) {
+            throw new ImportAlreadyRunningException();
+        }
+
+        // import 중 commit 되는 chunk 는 index 에 없음 -> 끝나고 다시 load 할 때까지 index 대신 db
+        usernameIndex.ifAvailable(MemberUsernameIndex::invalidate);
+        usernameSearchIndex.ifAvailable(UsernameSearchIndex::invalidate);
+        try {
+            run(in, progress);
+        } finally {
+            reconcile();
+            progress.finish();
+        }
+        ImportResult result = progress.snapshot();
+        log.info("member import finished: {}", result);
+        return result;
+    }
+
+    private void run(InputStream in, ImportProgress progress) throws IOException {
+        AuditingHandler auditing = auditingHandler.getObject();
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            session.setJdbcBatchSize(batchSize);
+            Chunk chunk = new Chunk(chunkSize);
+            Map<String, Long> teamIds = loadTeamIds(session);
+
+            Transaction tx = session.beginTransaction();
+            try {
+                long line = 0;
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    line++;
+                    if (text.isBlank() || line == 1 && text.trim().equalsIgnoreCase(HEADER)) {
+                        continue;
+                    }
+                    progress.row();
+
+                    Member member;
+                    try {
+                        member = parse(text);
+                    } catch (IllegalArgumentException e) {
+                        progress.failed(line, text, e.getMessage());
+                        continue;
+                    }
+
+                    String teamName = teamName(text);
+                    if (teamName != null) {
+                        Long teamId = teamIds.computeIfAbsent(teamName, name -> insertTeam(session, auditing, name, chunk, progress));
+                        member.setTeam(teamReference(teamId, teamName));
+                    }
+                    auditing.markCreated(member);
+                    session.insert(member);
+                    chunk.members[chunk.memberCount++] = member.getId();
+
+                    if (chunk.memberCount == chunkSize) {
+                        commit(session, tx, chunk, progress);
+                        tx = session.beginTransaction();
+                    }
+                    if (line % PROGRESS_INTERVAL == 0) {
+                        log.info("member import progress: {}", progress.snapshot());
+                    }
+                }
+                commit(session, tx, chunk, progress);
+            } catch (RuntimeException | IOException e) {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                throw e;
+            }
+        }
+    }
+
+    // 이름 -> team id, 같은 이름이 여러 개면 id 가 가장 작은 team
+    private Map<String, Long> loadTeamIds(StatelessSession session) {
+        Map<String, Long> teamIds = new HashMap<>();
+        session.createSelectionQuery("select t.name, t.id from Team t where t.name is not null order by t.id", Object[].class)
+                .getResultList()
+                .forEach(row -> teamIds.putIfAbsent((String) row[0], (Long) row[1]));
+        return teamIds;
+    }
+
+    private Long insertTeam(StatelessSession session, AuditingHandler auditing, String name, Chunk chunk,
+                            ImportProgress progress) {
+        Team team = new Team(name);
+        auditing.markCreated(team);
+        session.insert(team);
+        chunk.addTeam(team.getId());
+        progress.teamCreated();
+        return team.getId();
+    }
+
+    // insert 에는 team_id 만 필요, setTeam 은 Team.members 를 건드리지 않음
+    private static Team teamReference(Long id, String name) {
+        Team team = new Team(name);
+        team.setId(id);
+        return team;
+    }
+
+    private void commit(StatelessSession session, Transaction tx, Chunk chunk, ImportProgress progress) {
+        session.doWork(connection -> {
+            outboxWriter.append(connection, "Team", chunk.teams, chunk.teamCount, OutboxEventType.CREATED);
+            outboxWriter.append(connection, "Member", chunk.members, chunk.memberCount, OutboxEventType.CREATED);
+        });
+        tx.commit();
+        progress.imported(chunk.memberCount);
+        chunk.clear();
+    }
+
+    private void reconcile() {
+        memberStatsService.rebuild();
+        usernameIndex.ifAvailable(MemberUsernameIndex::load);
+        usernameSearchIndex.ifAvailable(UsernameSearchIndex::load);
+    }
+
+    private static Member parse(String text) {
+        String[] columns = text.split(",", -1);
+        if (columns.length < 2 || columns.length > 3) {
+            throw new IllegalArgumentException("expected " + HEADER);
+        }
+        String username = columns[0].trim();
+        if (username.isEmpty()) {
+            throw new IllegalArgumentException("username is empty");
+        }
+        int age;
+        try {
+            age = Integer.parseInt(columns[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("age is not a number");
+        }
+        if (age < 0) {
+            throw new IllegalArgumentException("age is negative");
+        }
+        return new Member(username, age);
+    }
+
+    private static String teamName(String text) {
+        int index = text.indexOf(',', text.indexOf(',') + 1);
+        if (index < 0) {
+            return null;
+        }
+        String name = text.substring(index + 1).trim();
+        return name.isEmpty() ? null : name;
+    }
+
+    // commit 전까지 insert 한 id (outbox 기록용)
+    private static class Chunk {
+        final long[] members;
+        long[] teams = new long[16];
+        int memberCount;
+        int teamCount;
+
+        Chunk(int size) {
+            members = new long[size];
+        }
+
+        void addTeam(long id) {
+            if (teamCount == teams.length) {
+                teams = Arrays.copyOf(teams, teamCount * 2);
+            }
+            teams[teamCount++] = id;
+        }
+
+        void clear() {
+            memberCount = 0;
+            teamCount = 0;
+        }
+    }
+}
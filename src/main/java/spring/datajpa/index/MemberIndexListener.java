@@ -0,0 +1,66 @@
+package spring.datajpa.index;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.datajpa.entity.Member;
+
+import java.util.Objects;
+
+// Member 변경을 commit 이후에 index 에 반영 (rollback 되면 반영 X)
+public class MemberIndexListener {
+
+    private final ObjectProvider<UsernameIndexUpdates> indexes;
+
+    public MemberIndexListener(ObjectProvider<UsernameIndexUpdates> indexes) {
+        this.indexes = indexes;
+    }
+
+    @PostPersist
+    public void postPersist(Member member) {
+        String username = member.getUsername();
+        Long id = member.getId();
+        afterCommit(index -> index.added(username, id));
+    }
+
+    @PostUpdate
+    public void postUpdate(Member member) {
+        String before = member.getLoadedUsername();
+        String after = member.getUsername();
+        Long id = member.getId();
+        if (!Objects.equals(before, after)) {
+            afterCommit(index -> {
+                index.removed(before, id);
+                index.added(after, id);
+            });
+        }
+    }
+
+    @PostRemove
+    public void postRemove(Member member) {
+        String username = member.getLoadedUsername() != null ? member.getLoadedUsername() : member.getUsername();
+        Long id = member.getId();
+        afterCommit(index -> index.removed(username, id));
+    }
+
+    private void afterCommit(IndexUpdate update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexes.forEach(update::apply);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexes.forEach(update::apply);
+            }
+        });
+    }
+
+    private interface IndexUpdate {
+        void apply(UsernameIndexUpdates index);
+    }
+}
@@ -0,0 +1,227 @@
+package spring.datajpa.index;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.shard.AllShards;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@ConditionalOnProperty(name = "datajpa.username-index.enabled", havingValue = "true")
+@Component
+public class MemberUsernameIndex implements UsernameIndexUpdates {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int RELOAD_CHUNK = 1_000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private AllShards allShards;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private UsernameIndex index = new UsernameIndex(1024);
+    private volatile BloomFilter bloomFilter = new BloomFilter(1024, FALSE_POSITIVE_RATE);
+    // rebuild 중에 commit 된 변경의 username, rebuild 중이 아니면 null
+    private Set<String> touched;
+    // load() 가 끝나 db 와 맞춰진 상태인지, invalidate() 되면 그 뒤에 시작한 load() 가 끝날 때까지 false
+    private boolean ready;
+    private long generation;
+
+    // 새 index 는 lock 밖에서 만들고 교체
+    // 읽는 도중 commit 된 변경은 loaded 에 들어 있을 수도 아닐 수도 있음 -> 해당 username 만 db 에서 다시 읽어 덮어씀
+    // (다시 읽는 동안 들어온 변경은 다음 회차에, 더 없을 때까지)
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public synchronized void load() {
+        long started;
+        lock.writeLock().lock();
+        try {
+            touched = new HashSet<>();
+            started = generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            // shard 가 여러 개면 모든 shard 의 합으로 크기를 잡고 shard 마다 차례로 읽음
+            long count = allShards.scatter(() -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult())
+                    .stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+            UsernameIndex loaded = new UsernameIndex((int) count);
+
+            allShards.forEach(true, () -> em.createQuery("select m.id, m.username from Member m where m.username is not null", Object[].class)
+                    .getResultStream()
+                    .forEach(row -> loaded.add((String) row[1], (Long) row[0])));
+
+            lock.writeLock().lock();
+            try {
+                index = loaded;
+                rebuildBloomFilter();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            while (true) {
+                Set<String> pending;
+                lock.writeLock().lock();
+                try {
+                    if (touched.isEmpty()) {
+                        ready = generation == started;
+                        return;
+                    }
+                    pending = touched;
+                    touched = new HashSet<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                Map<String, long[]> current = idsByUsername(pending);
+                lock.writeLock().lock();
+                try {
+                    for (String username : pending) {
+                        index.replace(username, current.getOrDefault(username, new long[0]));
+                        addToBloomFilter(username);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touched = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean exists(String username) {
+        if (username == null || !bloomFilter.mightContain(username)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return index.find(username) != UsernameIndex.ABSENT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // username 이 하나의 member 에만 있을 때만 id, 없거나 중복이면 empty
+    public OptionalLong findId(String username) {
+        if (username == null || !bloomFilter.mightContain(username)) {
+            return OptionalLong.empty();
+        }
+        lock.readLock().lock();
+        try {
+            long id = index.find(username);
+            return id > 0 ? OptionalLong.of(id) : OptionalLong.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void added(String username, long id) {
+        if (username == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            index.add(username, id);
+            addToBloomFilter(username);
+            if (touched != null) {
+                touched.add(username);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removed(String username, long id) {
+        if (username == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            index.remove(username);
+            if (touched != null) {
+                touched.add(username);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, long[]> idsByUsername(Set<String> usernames) {
+        Map<String, List<Long>> ids = new HashMap<>();
+        List<String> all = new ArrayList<>(usernames);
+        for (int from = 0; from < all.size(); from += RELOAD_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + RELOAD_CHUNK));
+            allShards.forEach(true, () -> em.createQuery("select m.username, m.id from Member m where m.username in :usernames", Object[].class)
+                    .setParameter("usernames", chunk)
+                    .getResultStream()
+                    .forEach(row -> ids.computeIfAbsent((String) row[0], k -> new ArrayList<>()).add((Long) row[1])));
+        }
+        Map<String, long[]> result = new HashMap<>();
+        ids.forEach((username, list) -> result.put(username, list.stream().mapToLong(Long::longValue).toArray()));
+        return result;
+    }
+
+    private void addToBloomFilter(String username) {
+        if (index.size() > bloomFilter.getExpectedInsertions()) {
+            rebuildBloomFilter();
+        } else {
+            bloomFilter.add(username);
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(index.size() * 2, 1024), FALSE_POSITIVE_RATE);
+        index.forEachUsername(rebuilt::add);
+        bloomFilter = rebuilt;
+    }
+}
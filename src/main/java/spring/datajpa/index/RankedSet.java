@@ -0,0 +1,157 @@
+package spring.datajpa.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 노드마다 subtree 크기를 가진 treap (정렬된 집합 + 순위)
+// rank / range 가 O(log n (+ limit)) -> 범위 안의 개수와 offset 위치를 처음부터 세지 않고 구함
+class RankedSet<T> {
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    RankedSet(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean add(T value) {
+        if (contains(value)) {
+            return false;
+        }
+        Split<T> split = split(root, value, false);
+        root = merge(merge(split.left(), new Node<>(value)), split.right());
+        return true;
+    }
+
+    boolean remove(T value) {
+        Split<T> lower = split(root, value, false);
+        Split<T> upper = split(lower.right(), value, true);
+        root = merge(lower.left(), upper.right());
+        return upper.left() != null;
+    }
+
+    boolean contains(T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int compare = comparator.compare(value, node.value);
+            if (compare == 0) {
+                return true;
+            }
+            node = compare < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    // value 보다 작은 원소 수 (value 가 없어도 됨)
+    long rank(T value) {
+        long rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    // 순위 from 부터 limit 개, from 위치까지는 subtree 크기로 내려가고 그 뒤는 in-order 순회
+    List<T> range(long from, int limit) {
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        long index = from;
+        while (node != null) {
+            long left = size(node.left);
+            if (index < left) {
+                stack.push(node);
+                node = node.left;
+            } else if (index == left) {
+                stack.push(node);
+                break;
+            } else {
+                index -= left + 1;
+                node = node.right;
+            }
+        }
+
+        List<T> result = new ArrayList<>(Math.min(limit, 1024));
+        while (!stack.isEmpty() && result.size() < limit) {
+            Node<T> current = stack.pop();
+            result.add(current.value);
+            for (Node<T> next = current.right; next != null; next = next.left) {
+                stack.push(next);
+            }
+        }
+        return result;
+    }
+
+    // inclusive 면 value 와 같은 원소도 왼쪽으로
+    private Split<T> split(Node<T> node, T value, boolean inclusive) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int compare = comparator.compare(node.value, value);
+        if (compare < 0 || (inclusive && compare == 0)) {
+            Split<T> split = split(node.right, value, inclusive);
+            node.right = split.left();
+            node.update();
+            return new Split<>(node, split.right());
+        }
+        Split<T> split = split(node.left, value, inclusive);
+        node.left = split.right();
+        node.update();
+        return new Split<>(split.left(), node);
+    }
+
+    // left 의 모든 원소 < right 의 모든 원소
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        Node(T value) {
+            this.value = value;
+        }
+
+        void update() {
+            size = size(left) + size(right) + 1;
+        }
+    }
+
+    private record Split<T>(Node<T> left, Node<T> right) {
+    }
+}
@@ -0,0 +1,148 @@
+package spring.datajpa.index;
+
+import java.util.function.Consumer;
+
+// username -> member_id, open addressing (String[] + long[] + int[]) 라서 Long boxing/Entry 객체 없음
+// username 은 unique 가 아니라서 중복이면 id 대신 AMBIGUOUS 를 돌려준다
+public class UsernameIndex {
+
+    public static final long ABSENT = -1L;
+    public static final long AMBIGUOUS = 0L;
+
+    private static final String TOMBSTONE = new String("");
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private String[] keys;
+    private long[] ids;
+    private int[] counts;
+    private int size;
+    private int used;
+
+    public UsernameIndex(int expectedSize) {
+        allocate(tableSizeFor((int) (Math.max(expectedSize, 16) / LOAD_FACTOR) + 1));
+    }
+
+    public long find(String username) {
+        int slot = slotOf(username);
+        return slot < 0 ? ABSENT : ids[slot];
+    }
+
+    public void add(String username, long id) {
+        int slot = slotOf(username);
+        if (slot >= 0) {
+            counts[slot]++;
+            ids[slot] = AMBIGUOUS;
+            return;
+        }
+
+        if (used + 1 > keys.length * LOAD_FACTOR) {
+            rehash(size + 1 > keys.length * LOAD_FACTOR / 2 ? keys.length << 1 : keys.length);
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(username) & mask;
+        while (keys[i] != null && keys[i] != TOMBSTONE) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == null) {
+            used++;
+        }
+        keys[i] = username;
+        ids[i] = id;
+        counts[i] = 1;
+        size++;
+    }
+
+    // db 에서 다시 읽은 username 의 전체 id 로 덮어씀 (몇 번을 적용해도 결과가 같음)
+    public void replace(String username, long[] memberIds) {
+        int slot = slotOf(username);
+        if (slot >= 0) {
+            keys[slot] = TOMBSTONE;
+            ids[slot] = ABSENT;
+            size--;
+        }
+        for (long id : memberIds) {
+            add(username, id);
+        }
+    }
+
+    public void remove(String username) {
+        int slot = slotOf(username);
+        if (slot < 0) {
+            return;
+        }
+        if (--counts[slot] > 0) {
+            // 남은 member 의 id 는 알 수 없으므로 AMBIGUOUS 유지 (db 로 fallback)
+            return;
+        }
+        keys[slot] = TOMBSTONE;
+        ids[slot] = ABSENT;
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEachUsername(Consumer<String> action) {
+        for (String key : keys) {
+            if (key != null && key != TOMBSTONE) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private int slotOf(String username) {
+        int mask = keys.length - 1;
+        for (int i = hash(username) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) {
+                return -1;
+            }
+            if (key != TOMBSTONE && key.equals(username)) {
+                return i;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        long[] oldIds = ids;
+        int[] oldCounts = counts;
+        allocate(capacity);
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            String key = oldKeys[j];
+            if (key == null || key == TOMBSTONE) {
+                continue;
+            }
+            int i = hash(key) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            ids[i] = oldIds[j];
+            counts[i] = oldCounts[j];
+            size++;
+            used++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        ids = new long[capacity];
+        counts = new int[capacity];
+        size = 0;
+        used = 0;
+    }
+
+    static int hash(String value) {
+        int h = value.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        return Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+    }
+}
@@ -0,0 +1,17 @@
+package spring.datajpa.index;
+
+// MemberIndexListener (bulk 변경은 repository) 가 commit 후 변경을 전달하는 username 기반 index
+// member 를 jdbc 로 직접 쓰는 경로 (DatasetGenerator, importer) 는 쓰기 전에 invalidate(), 끝나면 load()
+public interface UsernameIndexUpdates {
+
+    void added(String username, long id);
+
+    void removed(String username, long id);
+
+    // 다음 load() 가 끝날 때까지 isReady() false (그 사이 조회는 index 대신 db)
+    void invalidate();
+
+    boolean isReady();
+
+    void load();
+}
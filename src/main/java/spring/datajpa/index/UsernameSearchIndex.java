@@ -0,0 +1,321 @@
+package spring.datajpa.index;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.shard.AllShards;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// username 앞부분 검색은 정렬된 (username, id) 집합, 부분 문자열 검색은 3-gram 역색인
+@ConditionalOnProperty(name = "datajpa.username-search.enabled", havingValue = "true")
+@Component
+public class UsernameSearchIndex implements UsernameIndexUpdates {
+
+    static final int GRAM = 3;
+    private static final int RELOAD_CHUNK = 1_000;
+    private static final int TOTAL_LIMIT = 10_000;
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::username).thenComparingLong(Entry::id);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private AllShards allShards;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Entries entries = new Entries();
+    // rebuild 중에 commit 된 변경의 member id, rebuild 중이 아니면 null
+    private Set<Long> touched;
+    // load() 가 끝나 db 와 맞춰진 상태인지, invalidate() 되면 그 뒤에 시작한 load() 가 끝날 때까지 false
+    private boolean ready;
+    private long generation;
+
+    // exact 가 false 면 total 은 추정치
+    public record Result(long[] ids, long total, boolean exact) {
+    }
+
+    // 새 구조는 lock 밖에서 만들고 교체 (rebuild 동안 검색 / 변경 반영이 막히지 않음)
+    // 읽는 도중 commit 된 변경은 loaded 에 들어 있을 수도 아닐 수도 있음 -> 해당 id 만 db 에서 다시 읽어 덮어씀
+    // (다시 읽는 동안 들어온 변경은 다음 회차에, 더 없을 때까지)
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public synchronized void load() {
+        long started;
+        lock.writeLock().lock();
+        try {
+            touched = new HashSet<>();
+            started = generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            // shard 가 여러 개면 shard 마다 차례로 읽음
+            Entries loaded = new Entries();
+            allShards.forEach(true, () -> em.createQuery("select m.id, m.username from Member m where m.username is not null", Object[].class)
+                    .getResultStream()
+                    .forEach(row -> loaded.add((String) row[1], (Long) row[0])));
+
+            lock.writeLock().lock();
+            try {
+                entries = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            while (true) {
+                Set<Long> pending;
+                lock.writeLock().lock();
+                try {
+                    if (touched.isEmpty()) {
+                        ready = generation == started;
+                        return;
+                    }
+                    pending = touched;
+                    touched = new HashSet<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                Map<Long, String> current = usernamesById(pending);
+                lock.writeLock().lock();
+                try {
+                    for (Long id : pending) {
+                        entries.remove(id);
+                        String username = current.get(id);
+                        if (username != null) {
+                            entries.add(username, id);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touched = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // 범위의 시작 / 끝 순위로 total 과 offset 위치를 구함 -> O(log n + limit)
+    public Result startingWith(String prefix, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            long from = entries.sorted.rank(new Entry(prefix, Long.MIN_VALUE));
+            long to = entries.sorted.rank(new Entry(prefix + Character.MAX_VALUE, Long.MIN_VALUE));
+            long total = to - from;
+            int count = (int) Math.max(0, Math.min(limit, total - offset));
+            long[] page = entries.sorted.range(from + offset, count).stream()
+                    .mapToLong(Entry::id)
+                    .toArray();
+            return new Result(page, total, true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 결과는 id 순: 가장 짧은 posting 을 id 순으로 따라가며 나머지 posting 에 있는지 확인 (교집합을 미리 만들지 않음)
+    // offset + limit 까지 찾은 뒤에는 TOTAL_LIMIT 건까지만 더 세고, 그 이상이면 지나온 비율로 total 을 추정 (exact = false)
+    public Result containing(String substring, long offset, int limit) {
+        if (!searchable(substring)) {
+            throw new IllegalArgumentException("substring must be at least " + GRAM + " characters");
+        }
+        lock.readLock().lock();
+        try {
+            List<LongPostings> postings = entries.postings(substring);
+            if (postings.isEmpty()) {
+                return new Result(new long[0], 0, true);
+            }
+
+            LongPostings smallest = postings.get(0);
+            long end = offset + limit;
+            long stopAt = Math.max(end, TOTAL_LIMIT);
+            long[] page = new long[(int) Math.max(0, Math.min(limit, smallest.size() - offset))];
+            int filled = 0;
+            long matched = 0;
+            int examined = 0;
+            for (; examined < smallest.size() && matched < stopAt; examined++) {
+                long id = smallest.get(examined);
+                if (!containsAll(postings, id) || !entries.usernames.get(id).contains(substring)) {
+                    continue;
+                }
+                if (matched >= offset && matched < end) {
+                    page[filled++] = id;
+                }
+                matched++;
+            }
+
+            long[] ids = Arrays.copyOf(page, filled);
+            if (examined == smallest.size()) {
+                return new Result(ids, matched, true);
+            }
+            return new Result(ids, Math.round((double) matched * smallest.size() / examined), false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean containsAll(List<LongPostings> postings, long id) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (!postings.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean searchable(String substring) {
+        return substring.length() >= GRAM;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.usernames.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void added(String username, long id) {
+        if (username == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            entries.add(username, id);
+            if (touched != null) {
+                touched.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removed(String username, long id) {
+        if (username == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            entries.remove(username, id);
+            if (touched != null) {
+                touched.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, String> usernamesById(Set<Long> ids) {
+        Map<Long, String> result = new HashMap<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += RELOAD_CHUNK) {
+            List<Long> chunk = all.subList(from, Math.min(all.size(), from + RELOAD_CHUNK));
+            allShards.forEach(true, () -> em.createQuery("select m.id, m.username from Member m where m.id in :ids and m.username is not null", Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultStream()
+                    .forEach(row -> result.put((Long) row[0], (String) row[1])));
+        }
+        return result;
+    }
+
+    static Set<String> grams(String value) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            result.add(value.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    // load 때 통째로 교체되는 단위, lock 은 바깥에서
+    private static class Entries {
+
+        private final RankedSet<Entry> sorted = new RankedSet<>(ORDER);
+        private final Map<String, LongPostings> grams = new HashMap<>();
+        private final Map<Long, String> usernames = new HashMap<>();
+
+        void add(String username, long id) {
+            sorted.add(new Entry(username, id));
+            usernames.put(id, username);
+            for (String gram : grams(username)) {
+                grams.computeIfAbsent(gram, g -> new LongPostings()).add(id);
+            }
+        }
+
+        void remove(String username, long id) {
+            sorted.remove(new Entry(username, id));
+            usernames.remove(id);
+            for (String gram : grams(username)) {
+                LongPostings postings = grams.get(gram);
+                if (postings != null) {
+                    postings.remove(id);
+                    if (postings.size() == 0) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+
+        void remove(long id) {
+            String username = usernames.get(id);
+            if (username != null) {
+                remove(username, id);
+            }
+        }
+
+        // 검색어의 gram 별 posting, 짧은 순 (없는 gram 이 있으면 빈 목록)
+        List<LongPostings> postings(String substring) {
+            List<LongPostings> postings = new ArrayList<>();
+            for (String gram : grams(substring)) {
+                LongPostings posting = grams.get(gram);
+                if (posting == null) {
+                    return List.of();
+                }
+                postings.add(posting);
+            }
+            postings.sort(Comparator.comparingInt(LongPostings::size));
+            return postings;
+        }
+    }
+
+    private record Entry(String username, long id) {
+    }
+}
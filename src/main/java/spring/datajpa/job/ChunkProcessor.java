@@ -0,0 +1,8 @@
+package spring.datajpa.job;
+
+// null 을 반환하면 writer 에 넘기지 않음 (skip)
+@FunctionalInterface
+public interface ChunkProcessor<I, O> {
+
+    O process(I item) throws Exception;
+}
@@ -0,0 +1,16 @@
+package spring.datajpa.job;
+
+import java.util.List;
+
+// chunk 트랜잭션 안에서 호출, 같은 트랜잭션으로 commit
+@FunctionalInterface
+public interface ChunkWriter<O> {
+
+    void write(List<? extends O> items) throws Exception;
+
+    // processor 가 managed Member 를 직접 바꾸는 경우 -> chunk 끝의 flush 에서 jdbc batch update
+    static <O> ChunkWriter<O> dirtyChecking() {
+        return items -> {
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package spring.datajpa.job;
+
+public class JobFailedException extends RuntimeException {
+
+    public JobFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,5 @@
+package spring.datajpa.job;
+
+// processed 는 이번 실행에서 읽은 member 수, resumed 는 이전 실패 지점부터 이어서 실행했는지
+public record JobResult(String name, long processed, long written, long chunks, boolean resumed, long elapsedMillis) {
+}
@@ -0,0 +1,22 @@
+package spring.datajpa.job;
+
+import spring.datajpa.entity.Member;
+
+// workers > 1 이면 id 범위를 나눠 병렬 실행 (재개할 때는 처음 나눈 partition 그대로)
+public record MemberJob<O>(String name, int chunkSize, int workers,
+                           ChunkProcessor<Member, O> processor, ChunkWriter<O> writer) {
+
+    public MemberJob {
+        if (chunkSize < 1 || workers < 1) {
+            throw new IllegalArgumentException("chunkSize and workers must be positive");
+        }
+    }
+
+    public static <O> MemberJob<O> of(String name, int chunkSize, ChunkProcessor<Member, O> processor, ChunkWriter<O> writer) {
+        return new MemberJob<>(name, chunkSize, 1, processor, writer);
+    }
+
+    public MemberJob<O> withWorkers(int workers) {
+        return new MemberJob<>(name, chunkSize, workers, processor, writer);
+    }
+}
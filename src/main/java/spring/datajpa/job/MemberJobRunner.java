@@ -0,0 +1,178 @@
+package spring.datajpa.job;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.JobCheckpoint;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.JobCheckpointRepository;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// member 전체를 id keyset 으로 chunkSize 씩 읽고 (reader) -> processor -> writer, chunk 마다 트랜잭션 하나
+// checkpoint 도 같은 트랜잭션에서 갱신하므로 실패하면 마지막으로 commit 된 chunk 다음부터 재개
+@RequiredArgsConstructor
+@Component
+public class MemberJobRunner {
+
+    private final MemberRepository memberRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager em;
+
+    public <O> JobResult run(MemberJob<O> job) {
+        long start = System.currentTimeMillis();
+        List<JobCheckpoint> checkpoints = jobCheckpointRepository.findByJobNameOrderByPartitionNo(job.name());
+        boolean resumed = !checkpoints.isEmpty() && checkpoints.stream().anyMatch(c -> !c.isCompleted());
+        if (!resumed) {
+            checkpoints = start(job);
+        }
+
+        Counters counters = new Counters();
+        List<JobCheckpoint> pending = checkpoints.stream().filter(c -> !c.isCompleted()).toList();
+        if (pending.size() == 1) {
+            runPartition(job, pending.get(0).getId(), counters);
+        } else if (!pending.isEmpty()) {
+            runParallel(job, pending, counters);
+        }
+
+        return new JobResult(job.name(), counters.processed.get(), counters.written.get(), counters.chunks.get(),
+                resumed, System.currentTimeMillis() - start);
+    }
+
+    // 이전 실행이 끝났으면 (또는 처음이면) 현재 max id 까지를 workers 개 범위로 나눔
+    private List<JobCheckpoint> start(MemberJob<?> job) {
+        return transactionTemplate.execute(status -> {
+            jobCheckpointRepository.deleteByJobName(job.name());
+            jobCheckpointRepository.flush();
+
+            long maxId = memberRepository.findMaxId();
+            long rangeSize = Math.max(1, (maxId + job.workers() - 1) / job.workers());
+            List<JobCheckpoint> checkpoints = new ArrayList<>();
+            for (int i = 0; i < job.workers(); i++) {
+                long from = i * rangeSize;
+                long to = i == job.workers() - 1 ? maxId : Math.min(maxId, from + rangeSize);
+                checkpoints.add(new JobCheckpoint(job.name(), i, from, to));
+            }
+            return jobCheckpointRepository.saveAll(checkpoints);
+        });
+    }
+
+    private <O> void runParallel(MemberJob<O> job, List<JobCheckpoint> checkpoints, Counters counters) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(job.workers(), checkpoints.size()), r -> {
+            Thread thread = new Thread(r, "member-job-" + job.name());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (JobCheckpoint checkpoint : checkpoints) {
+                futures.add(executor.submit(() -> runPartition(job, checkpoint.getId(), counters)));
+            }
+
+            // 하나가 실패해도 나머지 partition 은 끝까지 (각자 checkpoint 까지) 진행
+            JobFailedException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof JobFailedException jobFailed ? jobFailed
+                                : new JobFailedException("job " + job.name() + " failed", e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new JobFailedException("job " + job.name() + " interrupted", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <O> void runPartition(MemberJob<O> job, String checkpointId, Counters counters) {
+        boolean more = true;
+        while (more) {
+            try {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status -> runChunk(job, checkpointId, counters)));
+            } catch (JobFailedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new JobFailedException("job " + job.name() + " failed at " + checkpointId, e);
+            }
+        }
+    }
+
+    // 남은 chunk 가 있으면 true
+    private <O> boolean runChunk(MemberJob<O> job, String checkpointId, Counters counters) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(checkpointId).orElseThrow();
+        List<Member> members = memberRepository.findByIdGreaterThanAndIdLessThanEqual(checkpoint.getLastId(),
+                checkpoint.getMaxId(), PageRequest.of(0, job.chunkSize(), Sort.by("id")));
+        if (members.isEmpty()) {
+            checkpoint.complete();
+            return false;
+        }
+
+        List<O> output = new ArrayList<>(members.size());
+        for (Member member : members) {
+            O item = process(job, member);
+            if (item != null) {
+                output.add(item);
+            }
+        }
+        write(job, output);
+
+        checkpoint.advance(members.get(members.size() - 1).getId(), members.size());
+        if (members.size() < job.chunkSize()) {
+            checkpoint.complete();
+        }
+
+        // chunk 의 변경을 (jdbc batch 로) 내보내고 영속성 컨텍스트 비움
+        em.flush();
+        em.clear();
+
+        counters.chunks.incrementAndGet();
+        counters.processed.addAndGet(members.size());
+        counters.written.addAndGet(output.size());
+        return !checkpoint.isCompleted();
+    }
+
+    private static <O> O process(MemberJob<O> job, Member member) {
+        try {
+            return job.processor().process(member);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JobFailedException("processor failed for member " + member.getId(), e);
+        }
+    }
+
+    private static <O> void write(MemberJob<O> job, List<O> output) {
+        try {
+            job.writer().write(output);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JobFailedException("writer failed", e);
+        }
+    }
+
+    private static class Counters {
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong written = new AtomicLong();
+        final AtomicLong chunks = new AtomicLong();
+    }
+}
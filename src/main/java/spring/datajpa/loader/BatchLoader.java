@@ -0,0 +1,97 @@
+package spring.datajpa.loader;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// window 동안 (또는 maxBatchSize 까지) 모인 key 를 한번의 batchFunction(in 쿼리) 으로 조회해서 각 호출자에게 나눠줌
+public class BatchLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Executor dispatcher;
+    private final DistributionSummary batchSizes;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<Optional<V>>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public BatchLoader(String name, Function<Set<K>, Map<K, V>> batchFunction, Duration window, int maxBatchSize,
+                       ScheduledExecutorService scheduler, Executor dispatcher, MeterRegistry meterRegistry) {
+        this.batchFunction = batchFunction;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+        this.batchSizes = DistributionSummary.builder("datajpa.batch-loader.batch.size")
+                .tag("loader", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Optional<V>> load(K key) {
+        CompletableFuture<Optional<V>> future;
+        Map<K, CompletableFuture<Optional<V>>> batch = null;
+
+        synchronized (lock) {
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                batch = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<K, CompletableFuture<Optional<V>>> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        dispatch(batch);
+    }
+
+    private Map<K, CompletableFuture<Optional<V>>> drain() {
+        Map<K, CompletableFuture<Optional<V>>> batch = pending;
+        pending = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<Optional<V>>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+
+        dispatcher.execute(() -> {
+            try {
+                Map<K, V> result = batchFunction.apply(batch.keySet());
+                batch.forEach((key, future) -> future.complete(Optional.ofNullable(result.get(key))));
+            } catch (Throwable e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package spring.datajpa.loader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+public class BatchLoaderConfig {
+
+    @Value("${datajpa.batch-loader.window:2ms}")
+    private Duration window;
+
+    @Value("${datajpa.batch-loader.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${datajpa.batch-loader.threads:4}")
+    private int threads;
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService batchLoaderScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "batch-loader-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService batchLoaderDispatcher() {
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public BatchLoader<Long, Member> memberLoader(MemberRepository memberRepository, MeterRegistry meterRegistry) {
+        return new BatchLoader<>("member", ids -> {
+            Map<Long, Member> members = new HashMap<>();
+            for (Member member : memberRepository.findAllById(ids)) {
+                members.put(member.getId(), member);
+            }
+            return members;
+        }, window, maxBatchSize, batchLoaderScheduler(), batchLoaderDispatcher(), meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package spring.datajpa.loader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+// 실행 중인 동일 호출이 있으면 그 결과를 기다림, 끝난 결과는 보관하지 않으므로 stale 데이터 없음
+public class SingleFlightInterceptor implements MethodInterceptor {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SingleFlightInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // 트랜잭션/EntityManager 가 묶인 thread 는 결과가 그 영속성 컨텍스트에 속하므로 공유하지 않음
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.getResourceMap().isEmpty()) {
+            return invocation.proceed();
+        }
+
+        Key key = new Key(invocation.getMethod(), Arrays.asList(invocation.getArguments()));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            count(key.method(), "shared");
+            return await(existing);
+        }
+
+        count(key.method(), "executed");
+        try {
+            Object result = invocation.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) throws Throwable {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void count(Method method, String result) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter("datajpa.single-flight",
+                    "method", method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                    "result", result).increment();
+        }
+    }
+
+    private record Key(Method method, List<Object> arguments) {
+    }
+}
@@ -0,0 +1,34 @@
+package spring.datajpa.outbox;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// 기본 sink (local / test 용), 최근 capacity 개의 message 만 메모리에 보관
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            if (this.messages.size() == capacity) {
+                this.messages.removeFirst();
+            }
+            this.messages.addLast(message);
+        }
+    }
+
+    public synchronized List<OutboxMessage> messages() {
+        return List.copyOf(messages);
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
@@ -0,0 +1,20 @@
+package spring.datajpa.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling
+@Configuration
+public class OutboxConfig {
+
+    // 다른 OutboxSink bean 을 쓸 때는 datajpa.outbox.sink 를 in-memory 가 아닌 값으로
+    // (user @Configuration 에서의 @ConditionalOnMissingBean 은 bean 등록 순서에 따라 결과가 달라짐)
+    @ConditionalOnProperty(name = "datajpa.outbox.sink", havingValue = "in-memory", matchIfMissing = true)
+    @Bean
+    public InMemoryOutboxSink inMemoryOutboxSink(@Value("${datajpa.outbox.in-memory.capacity:10000}") int capacity) {
+        return new InMemoryOutboxSink(capacity);
+    }
+}
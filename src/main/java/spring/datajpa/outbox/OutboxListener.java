@@ -0,0 +1,42 @@
+package spring.datajpa.outbox;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.OutboxEventType;
+import spring.datajpa.entity.Team;
+
+// flush 시점(같은 트랜잭션) 에 outbox 기록
+public class OutboxListener {
+
+    private final ObjectProvider<OutboxWriter> outboxWriter;
+
+    public OutboxListener(ObjectProvider<OutboxWriter> outboxWriter) {
+        this.outboxWriter = outboxWriter;
+    }
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        append(entity, OutboxEventType.CREATED);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        append(entity, OutboxEventType.UPDATED);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        append(entity, OutboxEventType.DELETED);
+    }
+
+    private void append(Object entity, OutboxEventType eventType) {
+        if (entity instanceof Member member) {
+            outboxWriter.ifAvailable(writer -> writer.append("Member", member.getId(), eventType));
+        } else if (entity instanceof Team team) {
+            outboxWriter.ifAvailable(writer -> writer.append("Team", team.getId(), eventType));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package spring.datajpa.outbox;
+
+import spring.datajpa.entity.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+public record OutboxMessage(long id, String aggregateType, long aggregateId, OutboxEventType eventType,
+                            LocalDateTime createdDate) {
+}
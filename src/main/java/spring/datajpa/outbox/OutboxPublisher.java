@@ -0,0 +1,114 @@
+package spring.datajpa.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.OutboxEventType;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// outbox 를 id 순으로 batchSize 씩 읽어 sink 에 발행하고 delete, 비어질 때까지 반복
+// 발행된 id 를 cursor 로 쓰지 않고 delete 하므로 늦게 commit 된 (작은 id 의) event 도 다음 poll 에서 발행됨
+@Slf4j
+@Component
+public class OutboxPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+
+    private final Counter published;
+    private final Timer lag;
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    public OutboxPublisher(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, OutboxSink sink,
+                           @Value("${datajpa.outbox.batch-size:1000}") int batchSize, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.published = meterRegistry.counter("datajpa.outbox.published");
+        this.lag = Timer.builder("datajpa.outbox.lag")
+                .description("time from outbox insert to publication")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("datajpa.outbox.oldest.pending", oldestPendingMillis, AtomicLong::get)
+                .description("age of the oldest unpublished event (ms) at the last poll")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.outbox.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            publishPending();
+        } catch (RuntimeException e) {
+            log.warn("outbox publication failed, retrying on next poll", e);
+        }
+    }
+
+    // 발행한 event 수
+    public synchronized int publishPending() {
+        int total = 0;
+        try {
+            while (true) {
+                List<OutboxMessage> batch = fetch();
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                sink.publish(batch);
+                delete(batch);
+
+                LocalDateTime now = LocalDateTime.now();
+                for (OutboxMessage message : batch) {
+                    lag.record(Duration.between(message.createdDate(), now));
+                }
+                published.increment(batch.size());
+                total += batch.size();
+
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            updateOldestPending();
+        }
+        return total;
+    }
+
+    private List<OutboxMessage> fetch() {
+        return jdbcTemplate.query("select id, aggregate_type, aggregate_id, event_type, created_date" +
+                        " from outbox_event order by id limit ?",
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("aggregate_type"),
+                        rs.getLong("aggregate_id"),
+                        OutboxEventType.valueOf(rs.getString("event_type")),
+                        rs.getTimestamp("created_date").toLocalDateTime()),
+                batchSize);
+    }
+
+    private void delete(List<OutboxMessage> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate("delete from outbox_event where id = ?", batch, batch.size(),
+                        (ps, message) -> ps.setLong(1, message.id())));
+    }
+
+    private void updateOldestPending() {
+        Timestamp oldest = jdbcTemplate.queryForObject("select min(created_date) from outbox_event", Timestamp.class);
+        oldestPendingMillis.set(oldest == null ? 0 : Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toMillis());
+    }
+}
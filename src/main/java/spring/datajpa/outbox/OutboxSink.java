@@ -0,0 +1,10 @@
+package spring.datajpa.outbox;
+
+import java.util.List;
+
+// 발행 대상 (kafka 등), 예외를 던지면 해당 batch 는 outbox 에 남아 다음 poll 에서 다시 발행 (at-least-once)
+public interface OutboxSink {
+
+    // messages 는 outbox id 순 -> 같은 aggregate 의 event 는 발생 순서대로 전달
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,58 @@
+package spring.datajpa.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import spring.datajpa.entity.OutboxEventType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+// JdbcTemplate -> 현재 jpa 트랜잭션의 커넥션 사용 (변경과 같이 commit / rollback)
+@RequiredArgsConstructor
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT = "insert into outbox_event (aggregate_type, aggregate_id, event_type, created_date)" +
+            " values (?, ?, ?, localtimestamp)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(String aggregateType, Long aggregateId, OutboxEventType eventType) {
+        jdbcTemplate.update(INSERT, aggregateType, aggregateId, eventType.name());
+    }
+
+    public void appendAll(String aggregateType, List<Long> aggregateIds, OutboxEventType eventType) {
+        jdbcTemplate.batchUpdate(INSERT, aggregateIds, aggregateIds.size(), (ps, id) -> {
+            ps.setString(1, aggregateType);
+            ps.setLong(2, id);
+            ps.setString(3, eventType.name());
+        });
+    }
+
+    // spring 트랜잭션 밖의 커넥션 (StatelessSession 등) 에서 그 트랜잭션에 같이 기록할 때, ids[0..count) 를 batch insert
+    public void append(Connection connection, String aggregateType, long[] ids, int count, OutboxEventType eventType)
+            throws SQLException {
+        if (count == 0) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < count; i++) {
+                ps.setString(1, aggregateType);
+                ps.setLong(2, ids[i]);
+                ps.setString(3, eventType.name());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // update member set age = age + 1 where age >= :age 이후 호출, 바뀐 member 마다 한 건 (set 기반 insert 한번)
+    public int appendMembersAgedOver(int age) {
+        return jdbcTemplate.update("insert into outbox_event (aggregate_type, aggregate_id, event_type, created_date)" +
+                " select 'Member', member_id, '" + OutboxEventType.UPDATED.name() + "', localtimestamp" +
+                " from member where age > ? order by member_id", age);
+    }
+}
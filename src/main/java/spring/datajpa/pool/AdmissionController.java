@@ -0,0 +1,19 @@
+package spring.datajpa.pool;
+
+import java.time.Duration;
+
+// 최근 pool 대기 시간이 maxPoolWait 를 넘으면 새 요청을 받지 않음 (pool timeout 까지 줄 서지 않고 바로 거절)
+public class AdmissionController {
+
+    private final PoolWaitMonitor waitMonitor;
+    private final Duration maxPoolWait;
+
+    public AdmissionController(PoolWaitMonitor waitMonitor, Duration maxPoolWait) {
+        this.waitMonitor = waitMonitor;
+        this.maxPoolWait = maxPoolWait;
+    }
+
+    public boolean admit() {
+        return waitMonitor.recentWait().compareTo(maxPoolWait) <= 0;
+    }
+}
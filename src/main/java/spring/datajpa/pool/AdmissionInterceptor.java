@@ -0,0 +1,47 @@
+package spring.datajpa.pool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String DEGRADED = AdmissionInterceptor.class.getName() + ".DEGRADED";
+
+    private final AdmissionController admissionController;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionInterceptor(AdmissionController admissionController, MeterRegistry meterRegistry) {
+        this.admissionController = admissionController;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static boolean isDegraded(WebRequest request) {
+        return request.getAttribute(DEGRADED, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (admissionController.admit()) {
+            return true;
+        }
+
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(Degradable.class)) {
+            meterRegistry.counter("datajpa.admission", "outcome", "degraded").increment();
+            request.setAttribute(DEGRADED, Boolean.TRUE);
+            response.setHeader("X-Degraded", "true");
+            return true;
+        }
+
+        meterRegistry.counter("datajpa.admission", "outcome", "rejected").increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return false;
+    }
+}
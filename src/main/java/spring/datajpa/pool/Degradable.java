@@ -0,0 +1,12 @@
+package spring.datajpa.pool;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// pool 이 포화 상태일 때 거절하지 않고 실행하되, handler 가 AdmissionInterceptor.isDegraded() 를 보고 db 없이 응답
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Degradable {
+}
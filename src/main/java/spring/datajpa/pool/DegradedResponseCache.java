@@ -0,0 +1,28 @@
+package spring.datajpa.pool;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// 정상 응답을 최근 capacity 개 보관, 포화 상태에서는 db 대신 이 값으로 응답 (오래된 값일 수 있음)
+public class DegradedResponseCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    public DegradedResponseCache(int capacity) {
+        this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized Optional<V> get(K key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+}
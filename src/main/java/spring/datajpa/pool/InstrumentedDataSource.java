@@ -0,0 +1,88 @@
+package spring.datajpa.pool;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// getConnection() 대기 시간, close() 까지의 점유 시간을 요청 endpoint (url pattern) 별로 기록
+// pool 자체의 active / idle / pending 은 actuator 의 hikaricp.* 지표 사용
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    static final String NO_ENDPOINT = "none";
+
+    private final PoolWaitMonitor waitMonitor;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+
+    public InstrumentedDataSource(DataSource targetDataSource, PoolWaitMonitor waitMonitor, MeterRegistry meterRegistry,
+                                  LongSupplier nanoClock) {
+        super(targetDataSource);
+        this.waitMonitor = waitMonitor;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = nanoClock.getAsLong();
+        return instrument(super.getConnection(), start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = nanoClock.getAsLong();
+        return instrument(super.getConnection(username, password), start);
+    }
+
+    private Connection instrument(Connection connection, long start) {
+        long acquired = nanoClock.getAsLong();
+        String endpoint = currentEndpoint();
+        waitMonitor.record(acquired - start);
+        timer("datajpa.pool.wait", endpoint).record(acquired - start, TimeUnit.NANOSECONDS);
+
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().equals("close") && !connection.isClosed()) {
+                        timer("datajpa.pool.hold", endpoint).record(nanoClock.getAsLong() - acquired, TimeUnit.NANOSECONDS);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private Timer timer(String name, String endpoint) {
+        return Timer.builder(name)
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_ENDPOINT;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? NO_ENDPOINT : pattern.toString();
+    }
+}
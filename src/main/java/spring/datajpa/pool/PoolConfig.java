@@ -0,0 +1,63 @@
+package spring.datajpa.pool;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class PoolConfig {
+
+    @Bean
+    public PoolWaitMonitor poolWaitMonitor(@Value("${datajpa.pool.wait-half-life:1s}") Duration halfLife,
+                                           MeterRegistry meterRegistry) {
+        PoolWaitMonitor monitor = new PoolWaitMonitor(halfLife, System::nanoTime);
+        Gauge.builder("datajpa.pool.wait.recent", monitor, m -> m.recentWait().toNanos() / 1_000_000.0)
+                .description("decaying average of connection acquire time")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    // DataSource bean (shard 설정이면 routing DataSource) 을 감싸서 대기 / 점유 시간 기록
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<PoolWaitMonitor> poolWaitMonitor,
+                                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, poolWaitMonitor.getObject(), meterRegistry.getObject(),
+                            System::nanoTime);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @ConditionalOnProperty(name = "datajpa.admission.enabled", havingValue = "true", matchIfMissing = true)
+    @Configuration
+    static class AdmissionConfig implements WebMvcConfigurer {
+
+        private final AdmissionInterceptor admissionInterceptor;
+
+        AdmissionConfig(PoolWaitMonitor poolWaitMonitor, MeterRegistry meterRegistry,
+                        @Value("${datajpa.admission.max-pool-wait:200ms}") Duration maxPoolWait) {
+            this.admissionInterceptor = new AdmissionInterceptor(new AdmissionController(poolWaitMonitor, maxPoolWait), meterRegistry);
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(admissionInterceptor).addPathPatterns("/members", "/members/**", "/members2/**");
+        }
+    }
+}
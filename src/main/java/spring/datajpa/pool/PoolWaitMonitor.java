@@ -0,0 +1,38 @@
+package spring.datajpa.pool;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+// 최근 connection 대기 시간 (지수 이동 평균), 새 sample 이 없으면 halfLife 마다 절반으로 줄어듦
+// -> 요청을 거절해서 sample 이 끊겨도 시간이 지나면 다시 받아들임
+public class PoolWaitMonitor {
+
+    private static final double ALPHA = 0.3;
+
+    private final long halfLifeNanos;
+    private final LongSupplier nanoClock;
+
+    private double waitNanos;
+    private long updatedAt;
+
+    public PoolWaitMonitor(Duration halfLife, LongSupplier nanoClock) {
+        this.halfLifeNanos = halfLife.toNanos();
+        this.nanoClock = nanoClock;
+        this.updatedAt = nanoClock.getAsLong();
+    }
+
+    public synchronized void record(long waitNanos) {
+        long now = nanoClock.getAsLong();
+        double decayed = decayed(now);
+        this.waitNanos = decayed + ALPHA * (waitNanos - decayed);
+        this.updatedAt = now;
+    }
+
+    public synchronized Duration recentWait() {
+        return Duration.ofNanos((long) decayed(nanoClock.getAsLong()));
+    }
+
+    private double decayed(long now) {
+        return waitNanos * Math.pow(0.5, (double) (now - updatedAt) / halfLifeNanos);
+    }
+}
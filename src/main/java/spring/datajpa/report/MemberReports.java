@@ -0,0 +1,34 @@
+package spring.datajpa.report;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+// MemberScanEngine 에 넘기는 reducer 모음
+public final class MemberReports {
+
+    public static final String NO_TEAM = "-";
+
+    private MemberReports() {
+    }
+
+    public static Collector<MemberScanRow, ?, Map<String, Double>> averageAgeByTeam() {
+        return Collectors.groupingBy(row -> row.teamName() == null ? NO_TEAM : row.teamName(),
+                TreeMap::new,
+                Collectors.averagingInt(MemberScanRow::age));
+    }
+
+    public static Collector<MemberScanRow, ?, Map<Integer, Long>> countByAgeBucket(int bucketSize) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("bucketSize must be positive");
+        }
+        return Collectors.groupingBy(row -> row.age() / bucketSize * bucketSize,
+                TreeMap::new,
+                Collectors.counting());
+    }
+
+    public static Collector<MemberScanRow, ?, Long> count() {
+        return Collectors.counting();
+    }
+}
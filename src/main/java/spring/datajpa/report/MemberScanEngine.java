@@ -0,0 +1,141 @@
+package spring.datajpa.report;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+// member_id 범위로 나눠서 fork-join pool 에서 병렬 scan, 범위마다 별도 read-only 커넥션 + streaming
+@Component
+public class MemberScanEngine implements DisposableBean {
+
+    private static final String SCAN_QUERY = "select new spring.datajpa.report.MemberScanRow(m.id, m.username, m.age, t.id, t.name)" +
+            " from Member m left join m.team t" +
+            " where m.id between :from and :to";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ForkJoinPool pool;
+    private final long rangeSize;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    public MemberScanEngine(EntityManagerFactory entityManagerFactory,
+                            @Value("${datajpa.scan.parallelism:0}") int parallelism,
+                            @Value("${datajpa.scan.range-size:100000}") long rangeSize,
+                            @Value("${datajpa.scan.fetch-size:1000}") int fetchSize,
+                            @Value("${datajpa.scan.clear-interval:10000}") int clearInterval) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.rangeSize = rangeSize;
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    public <A, R> R scan(Collector<MemberScanRow, A, R> reducer) {
+        List<long[]> ranges = ranges();
+        if (ranges.isEmpty()) {
+            return reducer.finisher().apply(reducer.supplier().get());
+        }
+        A result = pool.invoke(new RangeTask<>(ranges, 0, ranges.size(), reducer));
+        return reducer.finisher().apply(result);
+    }
+
+    private List<long[]> ranges() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            Object[] minMax = em.createQuery("select min(m.id), max(m.id) from Member m", Object[].class).getSingleResult();
+            List<long[]> ranges = new ArrayList<>();
+            if (minMax[0] == null) {
+                return ranges;
+            }
+            long min = (Long) minMax[0];
+            long max = (Long) minMax[1];
+            for (long from = min; from <= max; from += rangeSize) {
+                ranges.add(new long[]{from, Math.min(from + rangeSize - 1, max)});
+            }
+            return ranges;
+        } finally {
+            em.close();
+        }
+    }
+
+    private <A> A scanRange(long[] range, Collector<MemberScanRow, A, ?> reducer) {
+        A accumulation = reducer.supplier().get();
+
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            Session session = em.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            em.getTransaction().begin();
+            session.doWork(connection -> connection.setReadOnly(true));
+
+            TypedQuery<MemberScanRow> query = em.createQuery(SCAN_QUERY, MemberScanRow.class)
+                    .setParameter("from", range[0])
+                    .setParameter("to", range[1])
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true);
+
+            long rows = 0;
+            try (Stream<MemberScanRow> stream = query.getResultStream()) {
+                for (MemberScanRow row : (Iterable<MemberScanRow>) stream::iterator) {
+                    reducer.accumulator().accept(accumulation, row);
+                    if (++rows % clearInterval == 0) {
+                        em.clear();
+                    }
+                }
+            }
+
+            em.getTransaction().commit();
+            return accumulation;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private class RangeTask<A> extends RecursiveTask<A> {
+
+        private final List<long[]> ranges;
+        private final int from;
+        private final int to;
+        private final Collector<MemberScanRow, A, ?> reducer;
+
+        RangeTask(List<long[]> ranges, int from, int to, Collector<MemberScanRow, A, ?> reducer) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.reducer = reducer;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from == 1) {
+                return scanRange(ranges.get(from), reducer);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask<A> left = new RangeTask<>(ranges, from, middle, reducer);
+            RangeTask<A> right = new RangeTask<>(ranges, middle, to, reducer);
+            left.fork();
+            A rightResult = right.compute();
+            return reducer.combiner().apply(left.join(), rightResult);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package spring.datajpa.report;
+
+// scan 결과는 entity 가 아니라 값 객체 -> 영속성 컨텍스트에 쌓이지 않음
+public record MemberScanRow(Long id, String username, int age, Long teamId, String teamName) {
+}
@@ -0,0 +1,8 @@
+package spring.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import spring.datajpa.entity.AgeBucketStats;
+
+public interface AgeBucketStatsRepository extends JpaRepository<AgeBucketStats, Integer> {
+
+}
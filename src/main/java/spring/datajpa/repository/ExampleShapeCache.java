@@ -0,0 +1,316 @@
+package spring.datajpa.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.datajpa.entity.Member;
+import spring.datajpa.index.UsernameSearchIndex;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Example 을 probe 의 shape (값이 있는 path + matcher) 별로 jpql 로 한 번만 만들어 두고 이후에는 값만 bind
+// (QueryByExamplePredicateBuilder 는 호출마다 reflection + criteria 생성, 같은 shape 은 hibernate query plan cache 도 hit)
+// - Member.username 의 starting / containing (대소문자 구분) 은 UsernameSearchIndex 의 id 로 바꿈 (m.id in :ids)
+//   read-only 트랜잭션이고 index 가 db 와 맞춰진 상태 (isReady) 이고 맞는 id 가 1 ~ MAX_INDEX_IDS 개일 때만, 그 외에는 like
+//   (쓰기 트랜잭션은 아직 commit 안 된 member, jdbc 로 직접 넣은 member 는 index 에 없을 수 있음)
+// - 그 외 index 를 못 타는 matcher (ending, containing, ignoreCase) 는 shape 를 처음 만들 때 warn, 실행마다 datajpa.qbe.unindexed
+// 조건은 QueryByExamplePredicateBuilder 와 같음 (association 은 inner join, singular attribute 만, NullHandler.INCLUDE 면 is null)
+@Slf4j
+@Component
+public class ExampleShapeCache {
+
+    private static final int MAX_SHAPES = 1_000;
+    // index 에서 이보다 많이 맞으면 id 목록 대신 like
+    private static final int MAX_INDEX_IDS = 1_000;
+    private static final String ALIAS = "e";
+
+    private final EntityManager em;
+    private final ObjectProvider<UsernameSearchIndex> usernameSearchIndex;
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rewrites;
+
+    private final Map<Shape, Compiled> shapes = new ConcurrentHashMap<>();
+
+    public ExampleShapeCache(EntityManager em, ObjectProvider<UsernameSearchIndex> usernameSearchIndex,
+                             MeterRegistry meterRegistry) {
+        this.em = em;
+        this.usernameSearchIndex = usernameSearchIndex;
+        this.meterRegistry = meterRegistry;
+        this.hits = meterRegistry.counter("datajpa.qbe.shape", "result", "hit");
+        this.misses = meterRegistry.counter("datajpa.qbe.shape", "result", "miss");
+        this.rewrites = meterRegistry.counter("datajpa.qbe.index.rewrite");
+    }
+
+    public <T> List<T> findAll(Example<T> example, Sort sort) {
+        Bound bound = bind(example);
+        String jpql = QueryUtils.applySorting(bound.select(), sort, ALIAS);
+        return parameters(em.createQuery(jpql, example.getProbeType()), bound.values()).getResultList();
+    }
+
+    public <T> Page<T> findAll(Example<T> example, Pageable pageable) {
+        Bound bound = bind(example);
+        TypedQuery<T> query = parameters(em.createQuery(QueryUtils.applySorting(bound.select(), pageable.getSort(), ALIAS),
+                example.getProbeType()), bound.values());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<T> content = query.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(bound));
+    }
+
+    public long count(Example<?> example) {
+        return count(bind(example));
+    }
+
+    public int size() {
+        return shapes.size();
+    }
+
+    private long count(Bound bound) {
+        return parameters(em.createQuery(bound.count(), Long.class), bound.values()).getSingleResult();
+    }
+
+    private static <Q extends TypedQuery<?>> Q parameters(Q query, List<Object> values) {
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter("p" + i, values.get(i));
+        }
+        return query;
+    }
+
+    private Bound bind(Example<?> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        List<Leaf> leaves = new ArrayList<>();
+        walk(em.getMetamodel().managedType(example.getProbeType()), example.getProbe(), "",
+                new ExampleMatcherAccessor(matcher), leaves, new HashSet<>(Set.of(example.getProbeType())));
+
+        Shape shape = new Shape(example.getProbeType(), matcher.isAllMatching(),
+                leaves.stream().map(Leaf::key).toList());
+        Compiled compiled = shapes.get(shape);
+        if (compiled != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            compiled = compile(shape, leaves);
+            if (shapes.size() < MAX_SHAPES) {
+                shapes.putIfAbsent(shape, compiled);
+            }
+        }
+        compiled.unindexed().forEach(Counter::increment);
+
+        List<Leaf> bindings = leaves.stream().filter(Leaf::bindable).toList();
+        List<Object> values = new ArrayList<>(bindings.stream().map(Leaf::bindValue).toList());
+
+        if (compiled.indexedParam() < 0 || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return new Bound(compiled.select(), compiled.count(), values);
+        }
+        UsernameSearchIndex index = usernameSearchIndex.getIfAvailable();
+        if (index == null || !index.isReady()) {
+            return new Bound(compiled.select(), compiled.count(), values);
+        }
+
+        String username = (String) bindings.get(compiled.indexedParam()).value();
+        if (compiled.indexedMatcher() == ExampleMatcher.StringMatcher.CONTAINING && !UsernameSearchIndex.searchable(username)) {
+            return new Bound(compiled.select(), compiled.count(), values);
+        }
+        UsernameSearchIndex.Result result = compiled.indexedMatcher() == ExampleMatcher.StringMatcher.STARTING
+                ? index.startingWith(username, 0, MAX_INDEX_IDS)
+                : index.containing(username, 0, MAX_INDEX_IDS);
+        // 0 건이어도 빈 결과로 끝내지 않고 like (index 에 아직 없는 member 가 있을 수 있음)
+        if (result.total() == 0 || result.total() > MAX_INDEX_IDS || !result.exact()) {
+            return new Bound(compiled.select(), compiled.count(), values);
+        }
+        rewrites.increment();
+        values.set(compiled.indexedParam(), Arrays.stream(result.ids()).boxed().toList());
+        return new Bound(compiled.indexedSelect(), compiled.indexedCount(), values);
+    }
+
+    private void walk(ManagedType<?> type, Object probe, String path, ExampleMatcherAccessor accessor,
+                      List<Leaf> leaves, Set<Class<?>> visiting) {
+        BeanWrapper bean = new DirectFieldAccessFallbackBeanWrapper(probe);
+        List<SingularAttribute<?, ?>> attributes = new ArrayList<>(type.getSingularAttributes());
+        attributes.sort(Comparator.comparing(SingularAttribute::getName));
+
+        for (SingularAttribute<?, ?> attribute : attributes) {
+            String current = path.isEmpty() ? attribute.getName() : path + "." + attribute.getName();
+            if (accessor.isIgnoredPath(current)) {
+                continue;
+            }
+            Optional<Object> value = accessor.getValueTransformerForPath(current)
+                    .apply(Optional.ofNullable(bean.getPropertyValue(attribute.getName())));
+
+            if (value.isEmpty()) {
+                if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    leaves.add(new Leaf(current, Kind.NULL, null, null, false));
+                }
+                continue;
+            }
+
+            switch (attribute.getPersistentAttributeType()) {
+                case EMBEDDED -> walk(em.getMetamodel().embeddable(attribute.getJavaType()), value.get(), current,
+                        accessor, leaves, visiting);
+                case MANY_TO_ONE, ONE_TO_ONE -> {
+                    // 순환 참조는 QueryByExamplePredicateBuilder 처럼 건너뜀
+                    if (visiting.add(attribute.getJavaType())) {
+                        leaves.add(new Leaf(current, Kind.JOIN, null, null, false));
+                        walk(em.getMetamodel().managedType(attribute.getJavaType()), value.get(), current,
+                                accessor, leaves, visiting);
+                        visiting.remove(attribute.getJavaType());
+                    }
+                }
+                default -> {
+                    if (attribute.getJavaType() == String.class) {
+                        leaves.add(new Leaf(current, Kind.STRING, value.get(),
+                                accessor.getStringMatcherForPath(current), accessor.isIgnoreCaseForPath(current)));
+                    } else {
+                        leaves.add(new Leaf(current, Kind.EQUAL, value.get(), null, false));
+                    }
+                }
+            }
+        }
+    }
+
+    private Compiled compile(Shape shape, List<Leaf> leaves) {
+        String entity = em.getMetamodel().entity(shape.type()).getName();
+        Map<String, String> aliases = new HashMap<>();
+        aliases.put("", ALIAS);
+        StringBuilder joins = new StringBuilder();
+        List<String> predicates = new ArrayList<>();
+        List<Counter> unindexed = new ArrayList<>();
+        int indexedParam = -1;
+        int indexedPredicate = -1;
+        ExampleMatcher.StringMatcher indexedMatcher = null;
+        int param = 0;
+
+        for (Leaf leaf : leaves) {
+            String expression = expression(aliases, leaf.path());
+
+            switch (leaf.kind()) {
+                case JOIN -> {
+                    String alias = "j" + aliases.size();
+                    aliases.put(leaf.path(), alias);
+                    joins.append(" join ").append(expression).append(' ').append(alias);
+                }
+                case NULL -> predicates.add(expression + " is null");
+                case EQUAL -> predicates.add(expression + " = :p" + param++);
+                case STRING -> {
+                    ExampleMatcher.StringMatcher matcher = leaf.matcher();
+                    if (!leaf.ignoreCase() && leaf.path().equals("username") && shape.type() == Member.class
+                            && (matcher == ExampleMatcher.StringMatcher.STARTING
+                            || matcher == ExampleMatcher.StringMatcher.CONTAINING)) {
+                        indexedParam = param;
+                        indexedPredicate = predicates.size();
+                        indexedMatcher = matcher;
+                    } else if (leaf.ignoreCase() || matcher == ExampleMatcher.StringMatcher.ENDING
+                            || matcher == ExampleMatcher.StringMatcher.CONTAINING) {
+                        log.warn("query by example on {}.{} ({}{}) cannot use an index", shape.type().getSimpleName(),
+                                leaf.path(), matcher, leaf.ignoreCase() ? ", ignore case" : "");
+                        unindexed.add(meterRegistry.counter("datajpa.qbe.unindexed",
+                                "path", shape.type().getSimpleName() + "." + leaf.path(), "matcher", matcher.name()));
+                    }
+                    predicates.add(stringPredicate(expression, matcher, leaf.ignoreCase(), param++));
+                }
+            }
+        }
+
+        String from = " from " + entity + " " + ALIAS + joins;
+        String select = "select " + ALIAS + from + where(predicates, shape.allMatching());
+        String count = "select count(" + ALIAS + ")" + from + where(predicates, shape.allMatching());
+        if (indexedParam < 0) {
+            return new Compiled(select, count, null, null, -1, null, unindexed);
+        }
+
+        List<String> indexed = new ArrayList<>(predicates);
+        indexed.set(indexedPredicate, ALIAS + ".id in :p" + indexedParam);
+        return new Compiled(select, count,
+                "select " + ALIAS + from + where(indexed, shape.allMatching()),
+                "select count(" + ALIAS + ")" + from + where(indexed, shape.allMatching()),
+                indexedParam, indexedMatcher, unindexed);
+    }
+
+    // 가장 가까운 join alias + 나머지 path (embedded 는 join 없이 path 로)
+    private static String expression(Map<String, String> aliases, String path) {
+        String prefix = path;
+        String rest = "";
+        while (!aliases.containsKey(prefix)) {
+            int dot = prefix.lastIndexOf('.');
+            String name = prefix.substring(dot + 1);
+            rest = rest.isEmpty() ? name : name + "." + rest;
+            prefix = dot < 0 ? "" : prefix.substring(0, dot);
+        }
+        return rest.isEmpty() ? aliases.get(prefix) : aliases.get(prefix) + "." + rest;
+    }
+
+    private static String stringPredicate(String expression, ExampleMatcher.StringMatcher matcher, boolean ignoreCase, int param) {
+        String left = ignoreCase ? "lower(" + expression + ")" : expression;
+        String right = ignoreCase ? "lower(:p" + param + ")" : ":p" + param;
+        return switch (matcher) {
+            case DEFAULT, EXACT -> left + " = " + right;
+            case STARTING, ENDING, CONTAINING -> left + " like " + right + " escape '\\'";
+            case REGEX -> throw new IllegalArgumentException("Unsupported StringMatcher " + matcher);
+        };
+    }
+
+    private static String where(List<String> predicates, boolean allMatching) {
+        return predicates.isEmpty() ? "" : " where " + String.join(allMatching ? " and " : " or ", predicates);
+    }
+
+    enum Kind {
+        JOIN, NULL, EQUAL, STRING
+    }
+
+    private record Leaf(String path, Kind kind, Object value, ExampleMatcher.StringMatcher matcher, boolean ignoreCase) {
+
+        boolean bindable() {
+            return kind == Kind.EQUAL || kind == Kind.STRING;
+        }
+
+        // like 는 pattern 으로
+        Object bindValue() {
+            if (kind != Kind.STRING) {
+                return value;
+            }
+            String raw = (String) value;
+            return switch (matcher) {
+                case STARTING -> EscapeCharacter.DEFAULT.escape(raw) + "%";
+                case ENDING -> "%" + EscapeCharacter.DEFAULT.escape(raw);
+                case CONTAINING -> "%" + EscapeCharacter.DEFAULT.escape(raw) + "%";
+                default -> raw;
+            };
+        }
+
+        String key() {
+            return kind == Kind.STRING ? path + ":" + matcher + (ignoreCase ? ":ignoreCase" : "") : path + ":" + kind;
+        }
+    }
+
+    private record Shape(Class<?> type, boolean allMatching, List<String> leaves) {
+    }
+
+    private record Compiled(String select, String count, String indexedSelect, String indexedCount,
+                            int indexedParam, ExampleMatcher.StringMatcher indexedMatcher, List<Counter> unindexed) {
+    }
+
+    private record Bound(String select, String count, List<Object> values) {
+    }
+}
@@ -3,6 +3,6 @@ package spring.datajpa.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import spring.datajpa.entity.Item;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, String> {
 
 }
@@ -0,0 +1,13 @@
+package spring.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import spring.datajpa.entity.JobCheckpoint;
+
+import java.util.List;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    List<JobCheckpoint> findByJobNameOrderByPartitionNo(String jobName);
+
+    void deleteByJobName(String jobName);
+}
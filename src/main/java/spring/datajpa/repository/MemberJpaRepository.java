@@ -68,7 +68,7 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age +1 where m.age >= : age")
+        return em.createQuery("update versioned Member m set m.age = m.age +1, m.lastModifiedDate = local datetime where m.age >= : age")
                 .setParameter("age", age)
                 .executeUpdate();
     }
@@ -21,6 +21,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<Member> findTopTmpBy();
 
 //    @Query(name = "Member.findByUsername") 생략가능
+    @SingleFlight
     List<Member> findByUsername(@Param("username") String username);
 
     @Query("select m from Member m where m.username = :username and m.age = :age")
@@ -37,19 +38,31 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     List<Member> findListByUsername(String username);
 
+    @SingleFlight
     Member findMemByUsername(String username);
 
+    @SingleFlight
     Optional<Member> findOptionalByUsername(String username);
 
+    boolean existsByUsername(String username);
+
+    @SingleFlight
     Page<Member> findByAge(int age, Pageable pageable);
 
+    // 조건부 GET 용, entity 대신 id + lastModifiedDate 만 조회
+    Optional<MemberVersion> findVersionById(Long id);
+
+    List<MemberVersion> findVersionBy(Pageable pageable);
+
 //    @Query(value = "select m from Member m left join m.team t"
 //            ,countQuery = "select count(m.username) from Member m")
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
-    @Modifying(clearAutomatically = true )
-    @Query("update Member m set m.age = m.age +1 where m.age >= :age")
-    int bulkAgePlus(@Param("age") int age);
+    // keyset chunk 조회 (afterId < id <= maxId), pageable 은 크기 + id 정렬
+    List<Member> findByIdGreaterThanAndIdLessThanEqual(Long afterId, Long maxId, Pageable pageable);
+
+    @Query("select coalesce(max(m.id), 0) from Member m")
+    long findMaxId();
 
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberFetchJoin();
@@ -82,7 +95,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query(value = "select * from Member where username =?", nativeQuery = true)
     Member findByNativeQuery(String username);
 
-    @Query(value = "select m.member_id as id, m.username, t.name as teamName from Member m left join Team t",
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName from Member m left join Team t on m.team_id = t.team_id",
         countQuery = "select count(*) from Member",
         nativeQuery = true
     )
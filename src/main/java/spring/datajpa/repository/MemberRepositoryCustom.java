@@ -1,9 +1,48 @@
 package spring.datajpa.repository;
 
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import spring.datajpa.dto.MemberDto;
 import spring.datajpa.entity.Member;
+import spring.datajpa.shard.CrossShard;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    @CrossShard
+    List<MemberDto> findMemberDtoByNative(Long lastId, int limit);
+
+    int bulkAgePlus(int age);
+
+    // MemberUsernameIndex 에 하나뿐인 id 가 있으면 pk 로 조회, 아니면 username 조건 조회
+    Member findMemByUsername(String username);
+
+    Optional<Member> findOptionalByUsername(String username);
+
+    // index / like 검색은 구현이 모든 shard 를 읽음 (index 의 total 은 이미 전체)
+    @CrossShard
+    Page<Member> searchByUsernamePrefix(String prefix, Pageable pageable);
+
+    @CrossShard
+    Page<Member> searchByUsernameContaining(String substring, Pageable pageable);
+
+    // entity 를 load 하지 않고 id chunk 단위 delete, 삭제된 수
+    long bulkDelete(Specification<Member> spec);
+
+    long bulkDelete(Example<Member> example);
+
+    // QueryByExampleExecutor 대신 probe shape 별로 캐시된 jpql 로 실행 (ExampleShapeCache)
+    <S extends Member> List<S> findAll(Example<S> example);
+
+    <S extends Member> List<S> findAll(Example<S> example, Sort sort);
+
+    <S extends Member> Page<S> findAll(Example<S> example, Pageable pageable);
+
+    <S extends Member> long count(Example<S> example);
 }
@@ -1,20 +1,313 @@
 package spring.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.dto.MemberDto;
 import spring.datajpa.entity.Member;
+import spring.datajpa.entity.OutboxEventType;
+import spring.datajpa.index.MemberUsernameIndex;
+import spring.datajpa.index.UsernameIndexUpdates;
+import spring.datajpa.index.UsernameSearchIndex;
+import spring.datajpa.outbox.OutboxWriter;
+import spring.datajpa.report.MemberScanRow;
+import spring.datajpa.shard.AllShards;
+import spring.datajpa.shard.ShardMerge;
+import spring.datajpa.snapshot.ReferenceDataCache;
+import spring.datajpa.stats.MemberStatsService;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private static final int DELETE_CHUNK_SIZE = 1_000;
+    private static final Sort PREFIX_ORDER = Sort.by("username", "id");
+    private static final Sort CONTAINING_ORDER = Sort.by("id");
+
     private final EntityManager em;
+    private final MemberStatsService memberStatsService;
+    private final OutboxWriter outboxWriter;
+    private final ObjectProvider<UsernameSearchIndex> usernameSearchIndex;
+    private final ObjectProvider<MemberUsernameIndex> memberUsernameIndex;
+    private final ObjectProvider<UsernameIndexUpdates> usernameIndexes;
+    private final ObjectProvider<ReferenceDataCache> referenceDataCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ExampleShapeCache exampleShapeCache;
+    private final AllShards allShards;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    // offset 대신 member_id 기준 keyset paging -> 전체 export 시에도 table 크기에 선형
+    // shard 가 여러 개면 shard 마다 limit 개씩 가져와 id 순으로 merge
+    @Override
+    public List<MemberDto> findMemberDtoByNative(Long lastId, int limit) {
+        List<List<MemberDto>> parts = allShards.<List<MemberDto>>scatter(() -> em.createNativeQuery(
+                        "select m.member_id as id, m.username as username, t.name as teamName" +
+                        " from member m left join team t on m.team_id = t.team_id" +
+                        " where m.member_id > :lastId" +
+                        " order by m.member_id", "MemberDtoMapping")
+                .setParameter("lastId", lastId == null ? 0L : lastId)
+                .setMaxResults(limit)
+                .getResultList());
+        return ShardMerge.merge(parts, Sort.by("id"), 0, limit);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Member findMemByUsername(String username) {
+        return findOptionalByUsername(username).orElse(null);
+    }
+
+    // username 컬럼에는 db index 가 없음 -> index 의 id 로 pk 조회, 결과의 username 이 다르면 (index 반영 전) db 조건 조회
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Member> findOptionalByUsername(String username) {
+        MemberUsernameIndex index = memberUsernameIndex.getIfAvailable();
+        OptionalLong id = index == null || !index.isReady() ? OptionalLong.empty() : index.findId(username);
+        if (id.isPresent()) {
+            Member member = em.find(Member.class, id.getAsLong());
+            if (member != null && username.equals(member.getUsername())) {
+                return Optional.of(member);
+            }
+        }
+
+        List<Member> members = em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setMaxResults(2)
+                .getResultList();
+        if (members.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, members.size());
+        }
+        return members.stream().findFirst();
+    }
+
+    // bulk update 는 entity listener 를 거치지 않으므로 요약 테이블, outbox 도 같이 갱신
+    @Transactional
+    @Override
+    public int bulkAgePlus(int age) {
+        int count = em.createQuery("update versioned Member m set m.age = m.age +1, m.lastModifiedDate = local datetime where m.age >= :age")
+                .setParameter("age", age)
+                .executeUpdate();
+        em.clear();
+
+        memberStatsService.bulkAgePlus(age);
+        outboxWriter.appendMembersAgedOver(age);
+        return count;
+    }
+
+    // id 순으로 chunk 만큼 (id, username, age, team) 만 읽고 "delete ... where id in" -> 호출자 트랜잭션이 없으면 chunk 마다 commit
+    @Override
+    public long bulkDelete(Specification<Member> spec) {
+        long deleted = 0;
+        Long lastId = null;
+        while (true) {
+            Long after = lastId;
+            List<MemberScanRow> rows = transactionTemplate.execute(status -> deleteChunk(spec, after));
+            if (rows.isEmpty()) {
+                return deleted;
+            }
+            deleted += rows.size();
+            lastId = rows.get(rows.size() - 1).id();
+            if (rows.size() < DELETE_CHUNK_SIZE) {
+                return deleted;
+            }
+        }
+    }
+
+    @Override
+    public long bulkDelete(Example<Member> example) {
+        return bulkDelete((root, query, cb) -> QueryByExamplePredicateBuilder.getPredicate(root, cb, example, EscapeCharacter.DEFAULT));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public <S extends Member> List<S> findAll(Example<S> example) {
+        return exampleShapeCache.findAll(example, Sort.unsorted());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public <S extends Member> List<S> findAll(Example<S> example, Sort sort) {
+        return exampleShapeCache.findAll(example, sort);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public <S extends Member> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return exampleShapeCache.findAll(example, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public <S extends Member> long count(Example<S> example) {
+        return exampleShapeCache.count(example);
+    }
+
+    private List<MemberScanRow> deleteChunk(Specification<Member> spec, Long after) {
+        // 아직 flush 안 된 변경도 조건에 반영
+        em.flush();
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Member> root = query.from(Member.class);
+        List<Predicate> where = new ArrayList<>();
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            where.add(predicate);
+        }
+        if (after != null) {
+            where.add(cb.greaterThan(root.get("id"), after));
+        }
+        query.multiselect(root.get("id"), root.get("username"), root.get("age"), root.get("team").get("id"))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("id")));
+
+        List<MemberScanRow> rows = em.createQuery(query)
+                .setMaxResults(DELETE_CHUNK_SIZE)
+                .getResultStream()
+                .map(t -> new MemberScanRow(t.get(0, Long.class), t.get(1, String.class), t.get(2, Integer.class),
+                        t.get(3, Long.class), null))
+                .toList();
+        if (rows.isEmpty()) {
+            return rows;
+        }
+
+        // hql bulk delete -> hibernate 가 member 를 참조하는 2차 캐시 (Member, Team.members) region 을 무효화
+        List<Long> ids = rows.stream().map(MemberScanRow::id).toList();
+        em.createQuery("delete from Member m where m.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        // 영속성 컨텍스트에 남은 삭제된 Member, 그걸 담은 Team.members 컬렉션 정리
+        em.clear();
+
+        // entity listener 대신 요약 테이블, outbox, username index, reference cache 를 직접 갱신
+        memberStatsService.removedAll(rows);
+        outboxWriter.appendAll("Member", ids, OutboxEventType.DELETED);
+        afterCommit(() -> {
+            usernameIndexes.forEach(index -> rows.forEach(row -> index.removed(row.username(), row.id())));
+            referenceDataCache.ifAvailable(cache -> ids.forEach(cache::evictMember));
+        });
+        return rows;
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    // index 가 있으면 id page 만 index 에서 받고 entity 는 in 조회, 없거나 다시 load 중이면 like 검색 (3 글자 미만 부분 검색도 like)
+    // 결과 순서는 index 순서 (앞부분: username, id / 부분 문자열: id), 다른 정렬은 IllegalArgumentException
+    @Transactional(readOnly = true)
+    @Override
+    public Page<Member> searchByUsernamePrefix(String prefix, Pageable pageable) {
+        checkSort(pageable, PREFIX_ORDER);
+        UsernameSearchIndex index = usernameSearchIndex.getIfAvailable();
+        if (index != null && index.isReady()) {
+            return toPage(index.startingWith(prefix, pageable.getOffset(), pageable.getPageSize()), pageable);
+        }
+        return searchByLike(escape(prefix) + "%", pageable, PREFIX_ORDER);
+    }
+
+    // 매치가 많으면 index 의 total 은 추정치일 수 있음 (UsernameSearchIndex.containing)
+    @Transactional(readOnly = true)
+    @Override
+    public Page<Member> searchByUsernameContaining(String substring, Pageable pageable) {
+        checkSort(pageable, CONTAINING_ORDER);
+        UsernameSearchIndex index = usernameSearchIndex.getIfAvailable();
+        if (index != null && index.isReady() && UsernameSearchIndex.searchable(substring)) {
+            return toPage(index.containing(substring, pageable.getOffset(), pageable.getPageSize()), pageable);
+        }
+        return searchByLike("%" + escape(substring) + "%", pageable, CONTAINING_ORDER);
+    }
+
+    // 정렬 없음, 또는 order 의 앞부분 (오름차순) 만
+    private static void checkSort(Pageable pageable, Sort order) {
+        List<Sort.Order> requested = pageable.getSort().toList();
+        List<Sort.Order> supported = order.toList();
+        if (requested.size() > supported.size() || !requested.equals(supported.subList(0, requested.size()))) {
+            throw new IllegalArgumentException("unsupported sort: " + pageable.getSort() + " (supported: " + order + ")");
+        }
+    }
+
+    private Page<Member> toPage(UsernameSearchIndex.Result result, Pageable pageable) {
+        if (result.ids().length == 0) {
+            return new PageImpl<>(List.of(), pageable, result.total());
+        }
+
+        // index 는 모든 shard 의 member 를 담고 있으므로 id 조회도 모든 shard 에서 (shard 를 옮기는 중이면 먼저 찾은 쪽)
+        List<Long> ids = Arrays.stream(result.ids()).boxed().toList();
+        Map<Long, Member> byId = allShards.scatter(() -> em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                        .setParameter("ids", ids)
+                        .getResultList())
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(Member::getId, Function.identity(), (a, b) -> a));
+
+        // commit 직후 삭제된 member 는 index 반영 전일 수 있으므로 건너뜀
+        List<Member> content = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    // shard 가 여러 개면 shard 마다 처음부터 offset + size 만큼 가져와 order 순으로 merge
+    private Page<Member> searchByLike(String pattern, Pageable pageable, Sort order) {
+        long first = allShards.count() == 1 ? pageable.getOffset() : 0;
+        int max = Math.toIntExact(pageable.getOffset() + pageable.getPageSize() - first);
+        String orderBy = order.stream().map(o -> "m." + o.getProperty()).collect(Collectors.joining(", "));
+        List<List<Member>> parts = allShards.scatter(() -> em.createQuery("select m from Member m where m.username like :pattern escape '\\'" +
+                        " order by " + orderBy, Member.class)
+                .setParameter("pattern", pattern)
+                .setFirstResult((int) first)
+                .setMaxResults(max)
+                .getResultList());
+        List<Member> content = ShardMerge.merge(parts, order, pageable.getOffset() - first, pageable.getPageSize());
+
+        long total = allShards.scatter(() -> em.createQuery("select count(m) from Member m where m.username like :pattern escape '\\'", Long.class)
+                        .setParameter("pattern", pattern)
+                        .getSingleResult())
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
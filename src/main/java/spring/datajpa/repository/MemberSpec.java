@@ -20,6 +20,11 @@ public class MemberSpec {
         };
     }
 
+    public static Specification<Member> teamId(final Long teamId) {
+        return (root, query, criteriaBuilder) ->
+            criteriaBuilder.equal(root.get("team").get("id"), teamId);
+    }
+
     public static Specification<Member> username(final String username) {
         return (root, query, criteriaBuilder) ->
             criteriaBuilder.equal(root.get("username"), username);
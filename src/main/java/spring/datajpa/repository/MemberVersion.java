@@ -0,0 +1,10 @@
+package spring.datajpa.repository;
+
+import java.time.LocalDateTime;
+
+public interface MemberVersion {
+
+    Long getId();
+    LocalDateTime getLastModifiedDate();
+
+}
@@ -0,0 +1,51 @@
+package spring.datajpa.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.regex.Pattern;
+
+// native query 의 join 에 ON 절이 없으면(cartesian product) 기동 시점에 실패
+@Component
+public class NativeQueryValidator {
+
+    private static final Pattern JOIN = Pattern.compile("\\bjoin\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern JOIN_PREDICATE = Pattern.compile("\\b(on|using)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CROSS = Pattern.compile("\\b(cross|natural)\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private static final Class<?>[] REPOSITORIES = {MemberRepository.class, TeamRepository.class, ItemRepository.class};
+
+    @PostConstruct
+    public void validate() {
+        for (Class<?> repository : REPOSITORIES) {
+            validate(repository);
+        }
+    }
+
+    static void validate(Class<?> repositoryInterface) {
+        for (Method method : repositoryInterface.getDeclaredMethods()) {
+            Query query = method.getAnnotation(Query.class);
+            if (query == null || !query.nativeQuery()) {
+                continue;
+            }
+            if (!hasJoinPredicates(query.value())) {
+                throw new IllegalStateException("native query has a join without ON clause: " + method);
+            }
+        }
+    }
+
+    static boolean hasJoinPredicates(String sql) {
+        String[] parts = JOIN.split(sql);
+        for (int i = 1; i < parts.length; i++) {
+            if (CROSS.matcher(parts[i - 1]).find()) {
+                continue;
+            }
+            if (!JOIN_PREDICATE.matcher(parts[i]).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
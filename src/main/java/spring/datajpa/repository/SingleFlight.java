@@ -0,0 +1,10 @@
+package spring.datajpa.repository;
+
+import java.lang.annotation.*;
+
+// 같은 method + 같은 인자로 동시에 들어온 조회는 한번만 실행하고 결과를 공유 (read-only 조회에만 사용)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+}
@@ -0,0 +1,8 @@
+package spring.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import spring.datajpa.entity.TeamAgeStats;
+
+public interface TeamAgeStatsRepository extends JpaRepository<TeamAgeStats, Long> {
+
+}
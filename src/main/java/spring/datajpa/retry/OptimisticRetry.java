@@ -0,0 +1,20 @@
+package spring.datajpa.retry;
+
+import java.lang.annotation.*;
+
+// optimistic lock 충돌 (version 불일치) 시 트랜잭션을 처음부터 다시 실행
+// @Transactional 보다 바깥에서 동작, 이미 트랜잭션 안에서 호출되면 재시도하지 않음 (바깥 트랜잭션이 이미 rollback-only)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OptimisticRetry {
+
+    // 첫 시도 포함
+    int maxAttempts() default 3;
+
+    long backoffMillis() default 10;
+
+    double multiplier() default 2.0;
+
+    long maxBackoffMillis() default 500;
+}
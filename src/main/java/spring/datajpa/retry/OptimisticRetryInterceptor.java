@@ -0,0 +1,63 @@
+package spring.datajpa.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 충돌마다 datajpa.optimistic.conflict (outcome=retried | exhausted) 증가
+// backoff 는 지수 증가 + jitter (같이 충돌한 트랜잭션들이 같은 시점에 다시 부딪히지 않도록)
+public class OptimisticRetryInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public OptimisticRetryInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+
+        Method method = invocation.getMethod();
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+        OptimisticRetry retry = AnnotatedElementUtils.findMergedAnnotation(AopUtils.getMostSpecificMethod(method, targetClass),
+                OptimisticRetry.class);
+
+        long backoff = retry.backoffMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // 다시 proceed 할 수 있도록 매번 복사본으로 진행
+                return ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= retry.maxAttempts()) {
+                    count(method, "exhausted");
+                    throw e;
+                }
+                count(method, "retried");
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+                backoff = Math.min((long) (backoff * retry.multiplier()), retry.maxBackoffMillis());
+            }
+        }
+    }
+
+    private void count(Method method, String outcome) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter("datajpa.optimistic.conflict",
+                    "method", method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                    "outcome", outcome).increment();
+        }
+    }
+}
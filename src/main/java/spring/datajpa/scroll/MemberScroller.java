@@ -0,0 +1,185 @@
+package spring.datajpa.scroll;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import spring.datajpa.dto.MemberDto;
+import spring.datajpa.dto.MemberPage;
+import spring.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+// findSliceByAge 로 slice N 을 응답한 뒤 slice N+1 을 background 로 미리 조회해 cursor(session) 별로 잠깐 보관
+// - session 당 prefetch 1개, 전체 maxCursors 개 (넘으면 가장 오래 안 쓴 것부터 취소)
+// - ttl 동안 다음 요청이 없거나 cancel() 되면 취소, prefetch 할 thread / queue 가 없으면 prefetch 생략
+// cache 에 없으면 (만료, 취소, 재시도) cursor 의 조건으로 다시 조회
+@Component
+public class MemberScroller {
+
+    private static final int MAX_SIZE = 100;
+
+    private final MemberRepository memberRepository;
+    private final long ttlNanos;
+    private final long prefetchWaitNanos;
+    private final int maxCursors;
+    private final ThreadPoolExecutor prefetchExecutor;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final LinkedHashMap<String, Prefetch> prefetches = new LinkedHashMap<>(16, 0.75f, true);
+
+    public MemberScroller(MemberRepository memberRepository,
+                          @Value("${datajpa.scroll.ttl:30s}") Duration ttl,
+                          @Value("${datajpa.scroll.prefetch-wait:1s}") Duration prefetchWait,
+                          @Value("${datajpa.scroll.max-cursors:10000}") int maxCursors,
+                          @Value("${datajpa.scroll.prefetch-threads:4}") int prefetchThreads,
+                          MeterRegistry meterRegistry) {
+        this.memberRepository = memberRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.prefetchWaitNanos = prefetchWait.toNanos();
+        this.maxCursors = maxCursors;
+        this.prefetchExecutor = new ThreadPoolExecutor(prefetchThreads, prefetchThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(prefetchThreads * 16), r -> {
+            Thread thread = new Thread(r, "scroll-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hits = meterRegistry.counter("datajpa.scroll.prefetch", "result", "hit");
+        this.misses = meterRegistry.counter("datajpa.scroll.prefetch", "result", "miss");
+    }
+
+    public MemberPage scroll(int age, int size) {
+        return page(new ScrollCursor(UUID.randomUUID().toString(), age, pageSize(size), 0));
+    }
+
+    // cursor 는 client 가 만들어 보낼 수도 있으므로 size / page 를 다시 확인
+    public MemberPage next(String cursor) {
+        ScrollCursor decoded = ScrollCursor.decode(cursor);
+        if (decoded.page() < 0) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        return page(new ScrollCursor(decoded.session(), decoded.age(), pageSize(decoded.size()), decoded.page()));
+    }
+
+    // client 가 scroll 을 그만둘 때
+    public void cancel(String cursor) {
+        Prefetch prefetch;
+        synchronized (prefetches) {
+            prefetch = prefetches.remove(ScrollCursor.decode(cursor).session());
+        }
+        if (prefetch != null) {
+            prefetch.future().cancel(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.scroll.sweep-interval-ms:5000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        synchronized (prefetches) {
+            // access 순서 = 만료 순서
+            Iterator<Prefetch> iterator = prefetches.values().iterator();
+            while (iterator.hasNext()) {
+                Prefetch prefetch = iterator.next();
+                if (prefetch.expiresAt() - now > 0) {
+                    break;
+                }
+                prefetch.future().cancel(true);
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private MemberPage page(ScrollCursor cursor) {
+        Slice<MemberDto> slice = take(cursor);
+        if (slice == null) {
+            misses.increment();
+            slice = fetch(cursor);
+        } else {
+            hits.increment();
+        }
+
+        if (!slice.hasNext()) {
+            return MemberPage.of(slice);
+        }
+        ScrollCursor next = cursor.next();
+        prefetch(next);
+        return MemberPage.of(slice, next.encode());
+    }
+
+    // 진행 중인 prefetch 는 prefetchWait 까지 기다림 (새로 조회하는 것보다 빠름), 넘으면 취소하고 직접 조회
+    // 같은 session 이라도 age / size / page 중 하나라도 다르면 (client 가 바꾼 cursor) 쓰지 않음
+    private Slice<MemberDto> take(ScrollCursor cursor) {
+        Prefetch prefetch;
+        synchronized (prefetches) {
+            prefetch = prefetches.get(cursor.session());
+            if (prefetch == null || !prefetch.cursor().equals(cursor)) {
+                return null;
+            }
+            prefetches.remove(cursor.session());
+        }
+        try {
+            return prefetch.future().get(prefetchWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (TimeoutException e) {
+            prefetch.future().cancel(true);
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    private void prefetch(ScrollCursor cursor) {
+        FutureTask<Slice<MemberDto>> task = new FutureTask<>(() -> fetch(cursor));
+        try {
+            prefetchExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+
+        Prefetch evicted = null;
+        synchronized (prefetches) {
+            Prefetch previous = prefetches.put(cursor.session(), new Prefetch(cursor, task, System.nanoTime() + ttlNanos));
+            if (previous != null) {
+                previous.future().cancel(true);
+            }
+            if (prefetches.size() > maxCursors) {
+                Iterator<Map.Entry<String, Prefetch>> eldest = prefetches.entrySet().iterator();
+                evicted = eldest.next().getValue();
+                eldest.remove();
+            }
+        }
+        if (evicted != null) {
+            evicted.future().cancel(true);
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    private Slice<MemberDto> fetch(ScrollCursor cursor) {
+        return memberRepository.findSliceByAge(cursor.age(), PageRequest.of(cursor.page(), cursor.size(), Sort.by("id")))
+                .map(MemberDto::new);
+    }
+
+    private record Prefetch(ScrollCursor cursor, Future<Slice<MemberDto>> future, long expiresAt) {
+    }
+}
@@ -0,0 +1,30 @@
+package spring.datajpa.scroll;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// client 에게는 불투명한 문자열, cache 가 비워져도 다음 slice 를 다시 조회할 수 있도록 조건을 같이 담음
+record ScrollCursor(String session, int age, int size, int page) {
+
+    ScrollCursor next() {
+        return new ScrollCursor(session, age, size, page + 1);
+    }
+
+    String encode() {
+        String value = session + ":" + age + ":" + size + ":" + page;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ScrollCursor decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        return new ScrollCursor(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+    }
+}
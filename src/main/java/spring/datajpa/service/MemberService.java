@@ -0,0 +1,56 @@
+package spring.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamRepository;
+import spring.datajpa.retry.OptimisticRetry;
+
+import java.util.Collection;
+import java.util.List;
+
+// 읽고 -> 바꾸고 -> commit 시 "update ... where member_id = ? and version = ?"
+// 그 사이 다른 트랜잭션이 먼저 바꿨으면 (update 0 row) @OptimisticRetry 가 처음부터 다시 실행
+@RequiredArgsConstructor
+@Service
+public class MemberService {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+
+    @OptimisticRetry
+    @Transactional
+    public int agePlus(Long memberId, int delta) {
+        Member member = memberRepository.findById(memberId).orElseThrow();
+        member.setAge(member.getAge() + delta);
+        return member.getAge();
+    }
+
+    // 여러 건을 한 트랜잭션에서 바꾸면 versioned update 도 jdbc batch 로 묶임 (batch_versioned_data)
+    @OptimisticRetry(maxAttempts = 5)
+    @Transactional
+    public int agePlusAll(Collection<Long> memberIds, int delta) {
+        List<Member> members = memberRepository.findAllById(memberIds);
+        members.forEach(member -> member.setAge(member.getAge() + delta));
+        return members.size();
+    }
+
+    // 트랜잭션 없이 읽고 save (merge 가 version 비교) -> sharding 이면 save 가 새 team 의 shard 로 가고,
+    // shard 가 바뀌면 ShardMover 가 row 를 먼저 옮김 (한 트랜잭션은 한 shard 의 커넥션만 쓰므로)
+    @OptimisticRetry
+    public void changeTeam(Long memberId, Long teamId) {
+        Member member = memberRepository.findById(memberId).orElseThrow();
+        member.changeTeam(teamId == null ? null : teamRepository.getReferenceById(teamId));
+        memberRepository.save(member);
+    }
+
+    // 비교용: select ... for update 로 직렬화 (충돌은 없지만 lock 을 기다림)
+    @Transactional
+    public int agePlusLocked(String username, int delta) {
+        List<Member> members = memberRepository.findLockByUsername(username);
+        members.forEach(member -> member.setAge(member.getAge() + delta));
+        return members.size();
+    }
+}
@@ -0,0 +1,38 @@
+package spring.datajpa.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+// repository 를 거치지 않고 member 전체를 직접 읽는 곳 (검색 index load, 통계 rebuild 등) 용
+// sharding 이 꺼져 있으면 호출한 thread / 트랜잭션에서 한번, 켜져 있으면 shard 마다 그 shard 의 트랜잭션에서
+@RequiredArgsConstructor
+@Component
+public class AllShards {
+
+    private final ObjectProvider<ShardTemplate> shardTemplate;
+
+    public int count() {
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        return shards == null ? 1 : shards.getShardRouter().shardCount();
+    }
+
+    // 결과는 shard 순서
+    public <T> List<T> scatter(Supplier<T> callback) {
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        return shards == null ? Collections.singletonList(callback.get()) : shards.scatter(callback);
+    }
+
+    public void forEach(boolean readOnly, Runnable callback) {
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        if (shards == null) {
+            callback.run();
+        } else {
+            shards.forEach(readOnly, callback);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package spring.datajpa.shard;
+
+import java.lang.annotation.*;
+
+// 구현이 직접 모든 shard 를 읽는 repository 메서드 (AllShards), ShardRoutingInterceptor 가 routing 하지 않음
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CrossShard {
+}
@@ -0,0 +1,37 @@
+package spring.datajpa.shard;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.tool.schema.spi.DelayedDropRegistryNotAvailableImpl;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// EntityManagerFactory 를 만들 때의 매핑 metadata (hibernate.integrator_provider 로 등록), ShardSchemaInitializer 의 update 용
+class MappingMetadata implements Integrator {
+
+    private volatile Metadata metadata;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    // hbm2ddl update: 현재 커넥션 (ShardContext 의 shard) 에 없는 테이블 / 컬럼 / sequence / index 만 추가
+    void update() {
+        if (metadata == null) {
+            throw new IllegalStateException("mapping metadata not captured, is hibernate.integrator_provider overridden?");
+        }
+        Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+        settings.keySet().removeIf(key -> key.contains("persistence.schema-generation"));
+        settings.put(AvailableSettings.HBM2DDL_AUTO, "update");
+        SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings,
+                DelayedDropRegistryNotAvailableImpl.INSTANCE);
+    }
+}
@@ -0,0 +1,117 @@
+package spring.datajpa.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import spring.datajpa.repository.AgeBucketStatsRepository;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamAgeStatsRepository;
+import spring.datajpa.repository.TeamRepository;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// --spring.profiles.active=sharded (application-sharded.yml)
+// MemberRepository / TeamRepository / 통계 repository 는 ShardRoutingInterceptor 가 shard 로 보냄
+// repository 를 거치지 않고 member 를 직접 읽는 곳 (검색 index load, 통계 rebuild 등) 은 AllShards
+@ConditionalOnProperty(name = "datajpa.sharding.urls")
+@Configuration
+public class ShardConfig {
+
+    @Value("${datajpa.sharding.urls}")
+    private String[] urls;
+
+    @Value("${spring.datasource.username:sa}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Value("${datajpa.sharding.schema:update}")
+    private String schema;
+
+    @Primary
+    @Bean
+    public DataSource dataSource() {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < urls.length; shard++) {
+            shards.put(shard, DataSourceBuilder.create()
+                    .url(urls[shard].trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(shards);
+        dataSource.setDefaultTargetDataSource(shards.get(0));
+        return dataSource;
+    }
+
+    @Bean
+    public ShardRouter shardRouter() {
+        return new ShardRouter(urls.length);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardExecutor() {
+        return Executors.newFixedThreadPool(urls.length * 2, r -> {
+            Thread thread = new Thread(r, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public ShardTemplate shardTemplate(PlatformTransactionManager transactionManager) {
+        return new ShardTemplate(shardRouter(), transactionManager, shardExecutor());
+    }
+
+    @Bean
+    MappingMetadata mappingMetadata() {
+        return new MappingMetadata();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer mappingMetadataCustomizer() {
+        return properties -> properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(mappingMetadata()));
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        return new ShardSchemaInitializer(entityManagerFactory, mappingMetadata(), jdbcTemplate, shardRouter(), schema);
+    }
+
+    // @SingleFlight 보다 안쪽: 같은 호출끼리는 scatter 전체를 공유하고, shard 별 호출끼리는 공유하지 않음
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor shardRoutingAdvisor(ObjectProvider<ShardTemplate> shardTemplate, ObjectProvider<ShardMover> shardMover) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(type -> MemberRepository.class.isAssignableFrom(type)
+                        || TeamRepository.class.isAssignableFrom(type)
+                        || TeamAgeStatsRepository.class.isAssignableFrom(type)
+                        || AgeBucketStatsRepository.class.isAssignableFrom(type)),
+                new ShardRoutingInterceptor(shardTemplate, shardMover));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,22 @@
+package spring.datajpa.shard;
+
+// 현재 thread 가 사용할 shard, 트랜잭션(커넥션 획득) 시작 전에 지정해야 함
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
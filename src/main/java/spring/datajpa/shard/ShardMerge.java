@@ -0,0 +1,51 @@
+package spring.datajpa.shard;
+
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+// shard 별 결과 합치기: 각 shard 에서 같은 정렬로 offset + size 만큼 가져온 뒤 merge 하고 offset 부터 size 개
+public final class ShardMerge {
+
+    private ShardMerge() {
+    }
+
+    // 정렬 값이 같은 row 의 순서가 shard 마다 달라지지 않도록 id 를 마지막 정렬 조건으로
+    public static Sort withTieBreaker(Sort sort, String idProperty) {
+        return sort.getOrderFor(idProperty) != null ? sort : sort.and(Sort.by(idProperty));
+    }
+
+    public static Pageable perShard(Pageable pageable, Sort sort) {
+        return PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), sort);
+    }
+
+    public static <T> List<T> merge(List<? extends Collection<? extends T>> parts, Sort sort, long offset, long limit) {
+        return parts.stream()
+                .<T>flatMap(Collection::stream)
+                .sorted(comparator(sort))
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    // 정렬 조건이 없으면 0 (stable sort 라 shard 순서 그대로)
+    public static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(value -> property(value, order.getProperty()),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> property(Object value, String property) {
+        return (Comparable<Object>) PropertyAccessorFactory.forBeanPropertyAccess(value).getPropertyValue(property);
+    }
+}
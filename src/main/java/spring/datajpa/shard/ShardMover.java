@@ -0,0 +1,101 @@
+package spring.datajpa.shard;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.OutboxEventType;
+import spring.datajpa.outbox.OutboxWriter;
+import spring.datajpa.snapshot.ReferenceDataCache;
+import spring.datajpa.stats.MemberStatsService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// team 을 다른 shard 의 team 으로 바꾼 member 는 저장 전에 row 를 그 shard 로 옮김 (id / version 유지)
+// 두 shard 는 각자 트랜잭션: 대상 shard 에 insert 후 원래 shard 에서 version 조건으로 delete,
+// 그 사이 다른 트랜잭션이 바꿨으면 insert 를 되돌리고 optimistic lock 예외 (@OptimisticRetry 가 다시 읽어서 재시도)
+@ConditionalOnProperty(name = "datajpa.sharding.urls")
+@Component
+public class ShardMover {
+
+    private final ShardTemplate shardTemplate;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberStatsService memberStatsService;
+    private final OutboxWriter outboxWriter;
+    private final ObjectProvider<ReferenceDataCache> referenceDataCache;
+
+    public ShardMover(ShardTemplate shardTemplate, JdbcTemplate jdbcTemplate, MemberStatsService memberStatsService,
+                      OutboxWriter outboxWriter, ObjectProvider<ReferenceDataCache> referenceDataCache) {
+        this.shardTemplate = shardTemplate;
+        this.shardRouter = shardTemplate.getShardRouter();
+        this.jdbcTemplate = jdbcTemplate;
+        this.memberStatsService = memberStatsService;
+        this.outboxWriter = outboxWriter;
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    // load 했을 때의 team (loadedTeamId) 과 지금 team 의 shard 가 다르면 옮김
+    public void relocate(Member member) {
+        if (member.getId() == null || member.getVersion() == null) {
+            return;
+        }
+        Long teamId = member.getTeam() == null ? null : member.getTeam().getId();
+        int source = shardRouter.shardForTeam(member.getLoadedTeamId());
+        int target = shardRouter.shardForTeam(teamId);
+        if (source == target) {
+            return;
+        }
+
+        long id = member.getId();
+        long version = member.getVersion();
+        Map<String, Object> row = shardTemplate.execute(source, true, () -> jdbcTemplate.queryForList(
+                "select * from member where member_id = ? and version = ?", id, version).stream().findFirst().orElse(null));
+        if (row == null) {
+            throw new ObjectOptimisticLockingFailureException(Member.class, id);
+        }
+        Long sourceTeamId = row.get("TEAM_ID") == null ? null : ((Number) row.get("TEAM_ID")).longValue();
+        int age = ((Number) row.get("AGE")).intValue();
+
+        shardTemplate.execute(target, false, () -> {
+            insert(row, teamId);
+            memberStatsService.added(teamId, age);
+            outboxWriter.append("Member", id, OutboxEventType.UPDATED);
+            return null;
+        });
+
+        int deleted = shardTemplate.execute(source, false, () -> {
+            int count = jdbcTemplate.update("delete from member where member_id = ? and version = ?", id, version);
+            if (count > 0) {
+                memberStatsService.removed(sourceTeamId, age);
+            }
+            return count;
+        });
+        if (deleted == 0) {
+            shardTemplate.execute(target, false, () -> {
+                jdbcTemplate.update("delete from member where member_id = ?", id);
+                memberStatsService.removed(teamId, age);
+                return null;
+            });
+            throw new ObjectOptimisticLockingFailureException(Member.class, id);
+        }
+
+        referenceDataCache.ifAvailable(cache -> cache.evictMember(id));
+    }
+
+    // 컬럼 목록은 원래 row 그대로 (매핑에 컬럼이 추가돼도 같이 옮겨짐), team_id 만 새 team
+    private void insert(Map<String, Object> row, Long teamId) {
+        List<String> columns = new ArrayList<>(row.keySet());
+        List<Object> values = new ArrayList<>();
+        for (String column : columns) {
+            values.add(column.equalsIgnoreCase("team_id") ? teamId : row.get(column));
+        }
+        jdbcTemplate.update("insert into member (" + String.join(", ", columns) + ")" +
+                " values (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")", values.toArray());
+    }
+}
@@ -0,0 +1,41 @@
+package spring.datajpa.shard;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// team_id 범위로 partition: shard i 는 [i * ID_RANGE + 1, (i + 1) * ID_RANGE] 의 id 를 sequence 로 발급
+public class ShardRouter {
+
+    public static final long ID_RANGE = 1L << 40;
+
+    private final int shardCount;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // team 이 없는 member 는 shard 0
+    public int shardForTeam(Long teamId) {
+        if (teamId == null) {
+            return 0;
+        }
+        int shard = (int) ((teamId - 1) / ID_RANGE);
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("team_id out of shard range: " + teamId);
+        }
+        return shard;
+    }
+
+    // 새 team 을 둘 shard
+    public int nextShardForNewTeam() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    static long firstId(int shard) {
+        return shard * ID_RANGE + 1;
+    }
+}
@@ -0,0 +1,12 @@
+package spring.datajpa.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// ShardContext 가 없으면 default(shard 0) 커넥션, repository 호출은 ShardRoutingInterceptor 가 트랜잭션 전에 지정
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,267 @@
+package spring.datajpa.shard;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.AgeBucketStatsRepository;
+import spring.datajpa.repository.TeamAgeStatsRepository;
+import spring.datajpa.repository.TeamRepository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// MemberRepository / TeamRepository / 통계 repository 호출을 shard 로 보냄 (ShardConfig 의 advisor)
+// - ShardContext 가 이미 있거나 트랜잭션 안: 그 shard 에서 그대로 (다른 shard 의 entity 를 저장 / 삭제하려 하면 예외)
+// - entity 저장 / 삭제: team_id 의 shard (saveAll 등은 shard 별로 묶어서), team 을 다른 shard 로 바꾼 member 는 ShardMover 로 먼저 옮김
+// - team id 로 찾는 메서드 (TeamRepository, TeamAgeStatsRepository 의 *ById): id 범위의 shard
+// - 나머지는 모든 shard 에 scatter 후 반환 타입별로 합침 (member id 조회도, 옮겨진 member 는 id 범위와 shard 가 다름)
+//   Pageable 이 있으면 shard 마다 offset + size 만큼 같은 정렬 (+ id) 로 가져와 merge
+// - @CrossShard 메서드는 구현이 직접 모든 shard 를 읽으므로 그대로
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final Set<String> ENTITY_WRITES = Set.of("save", "saveAndFlush", "delete");
+    private static final Set<String> ENTITIES_WRITES = Set.of("saveAll", "saveAllAndFlush", "deleteAll", "deleteAllInBatch");
+    private static final Set<String> BY_ID = Set.of("findById", "existsById", "getReferenceById", "getById", "getOne", "deleteById");
+    private static final Set<String> BY_IDS = Set.of("findAllById", "deleteAllById", "deleteAllByIdInBatch");
+
+    private final ObjectProvider<ShardTemplate> shardTemplate;
+    private final ObjectProvider<ShardMover> shardMover;
+
+    public ShardRoutingInterceptor(ObjectProvider<ShardTemplate> shardTemplate, ObjectProvider<ShardMover> shardMover) {
+        this.shardTemplate = shardTemplate;
+        this.shardMover = shardMover;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class || AnnotatedElementUtils.hasAnnotation(method, CrossShard.class)) {
+            return invocation.proceed();
+        }
+
+        ShardTemplate shards = shardTemplate.getObject();
+        ShardRouter router = shards.getShardRouter();
+        String name = method.getName();
+        Object[] arguments = invocation.getArguments();
+
+        if (ShardContext.current() != null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            checkBound(router, name, arguments);
+            return invocation.proceed();
+        }
+
+        if (arguments.length == 1 && ENTITY_WRITES.contains(name) && isEntity(arguments[0])) {
+            Object entity = arguments[0];
+            if (name.startsWith("save") && entity instanceof Member member) {
+                shardMover.getObject().relocate(member);
+            }
+            Integer shard = shardOf(router, name, entity);
+            return shards.execute(shard == null ? router.nextShardForNewTeam() : shard, false,
+                    () -> proceed(invocation, arguments));
+        }
+
+        if (arguments.length == 1 && ENTITIES_WRITES.contains(name) && arguments[0] instanceof Iterable<?> entities) {
+            Map<Integer, List<Object>> byShard = new TreeMap<>();
+            for (Object entity : entities) {
+                if (name.startsWith("save") && entity instanceof Member member) {
+                    shardMover.getObject().relocate(member);
+                }
+                Integer shard = shardOf(router, name, entity);
+                byShard.computeIfAbsent(shard == null ? router.nextShardForNewTeam() : shard, k -> new ArrayList<>()).add(entity);
+            }
+            return scatter(shards, invocation, byShard, false);
+        }
+
+        boolean teamKeyed = invocation.getThis() instanceof TeamRepository || invocation.getThis() instanceof TeamAgeStatsRepository;
+        if (teamKeyed && arguments.length == 1 && BY_ID.contains(name)) {
+            return shards.execute(router.shardForTeam((Long) arguments[0]), readOnly(name), () -> proceed(invocation, arguments));
+        }
+        if (teamKeyed && arguments.length == 1 && BY_IDS.contains(name) && arguments[0] instanceof Iterable<?> ids) {
+            Map<Integer, List<Object>> byShard = new TreeMap<>();
+            for (Object id : ids) {
+                byShard.computeIfAbsent(router.shardForTeam((Long) id), k -> new ArrayList<>()).add(id);
+            }
+            return scatter(shards, invocation, byShard, readOnly(name));
+        }
+
+        return scatterAll(shards, invocation, idProperty(invocation.getThis()));
+    }
+
+    // 모든 shard 에 같은 호출, Pageable 인자는 shard 마다 처음부터 offset + size 만큼으로 바꿔서
+    private static Object scatterAll(ShardTemplate shards, MethodInvocation invocation, String idProperty) {
+        Method method = invocation.getMethod();
+        Object[] arguments = invocation.getArguments().clone();
+        List<Integer> all = new ArrayList<>();
+        for (int shard = 0; shard < shards.getShardRouter().shardCount(); shard++) {
+            all.add(shard);
+        }
+
+        int pageableIndex = indexOf(arguments, Pageable.class);
+        if (pageableIndex >= 0) {
+            Pageable pageable = (Pageable) arguments[pageableIndex];
+            // native query 는 sort 의 property 가 컬럼 이름이라 id 를 붙이지 않음
+            Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+            Sort sort = pageable.isPaged() && (query == null || !query.nativeQuery())
+                    ? ShardMerge.withTieBreaker(pageable.getSort(), idProperty)
+                    : pageable.getSort();
+            if (pageable.isPaged()) {
+                arguments[pageableIndex] = ShardMerge.perShard(pageable, sort);
+            }
+            List<Object> results = shards.scatter(all, readOnly(method.getName()), shard -> proceed(invocation, arguments));
+            return mergePaged(method, results, pageable, sort);
+        }
+
+        int sortIndex = indexOf(arguments, Sort.class);
+        Sort sort = sortIndex >= 0 ? (Sort) arguments[sortIndex] : Sort.unsorted();
+        List<Object> results = shards.scatter(all, readOnly(method.getName()), shard -> proceed(invocation, arguments));
+        return merge(method, results, sort);
+    }
+
+    // shard 별로 나눈 인자 (entity / id 목록) 로 해당 shard 들에만 실행
+    private static Object scatter(ShardTemplate shards, MethodInvocation invocation, Map<Integer, List<Object>> byShard,
+                                  boolean readOnly) {
+        List<Object> results = shards.scatter(new ArrayList<>(byShard.keySet()), readOnly,
+                shard -> proceed(invocation, new Object[]{byShard.get(shard)}));
+        return merge(invocation.getMethod(), results, Sort.unsorted());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object mergePaged(Method method, List<Object> results, Pageable pageable, Sort sort) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long limit = pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE;
+        List<List<Object>> contents = new ArrayList<>();
+        for (Object result : results) {
+            contents.add(result instanceof Slice<?> slice ? (List<Object>) slice.getContent() : (List<Object>) result);
+        }
+        List<Object> content = ShardMerge.merge(contents, sort, offset, limit);
+
+        Class<?> type = method.getReturnType();
+        if (Page.class.isAssignableFrom(type)) {
+            long total = results.stream().mapToLong(result -> ((Page<?>) result).getTotalElements()).sum();
+            return new PageImpl<>(content, pageable, total);
+        }
+        if (Slice.class.isAssignableFrom(type)) {
+            long fetched = contents.stream().mapToLong(List::size).sum();
+            boolean hasNext = fetched > offset + content.size() || results.stream().anyMatch(result -> ((Slice<?>) result).hasNext());
+            return new SliceImpl<>(content, pageable, hasNext);
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return content;
+        }
+        throw new UnsupportedOperationException("cannot merge paged " + type.getSimpleName() + " across shards: " + method);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object merge(Method method, List<Object> results, Sort sort) {
+        Class<?> type = method.getReturnType();
+        if (type == void.class) {
+            return null;
+        }
+        if (Iterable.class.isAssignableFrom(type) && !Page.class.isAssignableFrom(type) && !Slice.class.isAssignableFrom(type)) {
+            List<List<Object>> parts = new ArrayList<>();
+            for (Object result : results) {
+                parts.add(StreamSupport.stream(((Iterable<Object>) result).spliterator(), false).toList());
+            }
+            return new ArrayList<>(ShardMerge.merge(parts, sort, 0, Long.MAX_VALUE));
+        }
+        if (type == Optional.class) {
+            return results.stream().map(result -> (Optional<?>) result).filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (type == long.class || type == Long.class || type == int.class || type == Integer.class) {
+            // findMaxId 같은 최대값은 max, 나머지 (count, 변경 / 삭제된 수) 는 합
+            long merged = method.getName().contains("Max")
+                    ? results.stream().mapToLong(result -> ((Number) result).longValue()).max().orElse(0)
+                    : results.stream().mapToLong(result -> ((Number) result).longValue()).sum();
+            return type == int.class || type == Integer.class ? Math.toIntExact(merged) : merged;
+        }
+        if (Page.class.isAssignableFrom(type) || Slice.class.isAssignableFrom(type)
+                || Stream.class.isAssignableFrom(type)) {
+            throw new UnsupportedOperationException("cannot merge " + type.getSimpleName() + " across shards: " + method);
+        }
+        // 단건 조회 (entity / projection), 하나의 shard 에만 있음
+        return results.stream().filter(Objects::nonNull).findFirst().orElse(null);
+    }
+
+    // 트랜잭션 / ShardContext 가 묶인 shard 와 다른 shard 의 entity 는 저장할 수 없음 (커넥션은 이미 정해짐)
+    private static void checkBound(ShardRouter router, String name, Object[] arguments) {
+        if (arguments.length != 1 || !(ENTITY_WRITES.contains(name) || ENTITIES_WRITES.contains(name))) {
+            return;
+        }
+        int bound = ShardContext.current() == null ? 0 : ShardContext.current();
+        Iterable<?> entities = arguments[0] instanceof Iterable<?> iterable ? iterable : List.of(arguments[0]);
+        for (Object entity : entities) {
+            if (!isEntity(entity)) {
+                return;
+            }
+            Integer shard = shardOf(router, name, entity);
+            if (shard != null && shard != bound) {
+                throw new IllegalStateException(entity + " belongs to shard " + shard + " but the transaction is bound to shard " + bound);
+            }
+        }
+    }
+
+    // 새 team 은 null (아무 shard), 삭제하는 member 는 load 했을 때의 team 기준 (row 가 있는 곳)
+    private static Integer shardOf(ShardRouter router, String name, Object entity) {
+        if (entity instanceof Team team) {
+            return team.getId() == null ? null : router.shardForTeam(team.getId());
+        }
+        if (entity instanceof Member member) {
+            if (name.startsWith("delete") && member.getId() != null) {
+                return router.shardForTeam(member.getLoadedTeamId());
+            }
+            return router.shardForTeam(member.getTeam() == null ? null : member.getTeam().getId());
+        }
+        throw new IllegalArgumentException("not a sharded entity: " + entity);
+    }
+
+    private static boolean isEntity(Object value) {
+        return value instanceof Member || value instanceof Team;
+    }
+
+    private static String idProperty(Object repository) {
+        if (repository instanceof TeamAgeStatsRepository) {
+            return "teamId";
+        }
+        if (repository instanceof AgeBucketStatsRepository) {
+            return "bucketStart";
+        }
+        return "id";
+    }
+
+    private static boolean readOnly(String name) {
+        return name.startsWith("find") || name.startsWith("get") || name.startsWith("read") || name.startsWith("query")
+                || name.startsWith("search") || name.startsWith("count") || name.startsWith("exists");
+    }
+
+    private static int indexOf(Object[] arguments, Class<?> type) {
+        for (int i = 0; i < arguments.length; i++) {
+            if (type.isInstance(arguments[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 다른 thread / 여러 번 진행할 수 있도록 복사본으로
+    private static Object proceed(MethodInvocation invocation, Object[] arguments) {
+        try {
+            return ((ProxyMethodInvocation) invocation).invocableClone(arguments).proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
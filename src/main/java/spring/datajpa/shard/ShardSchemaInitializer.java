@@ -0,0 +1,91 @@
+package spring.datajpa.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+// ddl-auto 는 기본 shard 에만 적용되므로 shard 마다 스키마 생성 + sequence 시작값을 shard id 범위로 이동
+// datajpa.sharding.schema
+// - update (기본): shard 마다 매핑에 새로 생긴 테이블 / 컬럼을 추가 (기존 데이터 / sequence 그대로), 비어 있던 shard 만 sequence 이동
+// - create: 기동할 때마다 drop 후 다시 생성 (테스트용)
+// - validate: 매핑과 스키마가 다르면 기동 실패
+// - none: 아무것도 하지 않음
+@Slf4j
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private static final String[] SEQUENCES = {"member_seq", "team_seq"};
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MappingMetadata mappingMetadata;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final String mode;
+
+    ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, MappingMetadata mappingMetadata, JdbcTemplate jdbcTemplate,
+                           ShardRouter shardRouter, String mode) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.mappingMetadata = mappingMetadata;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.mode = mode;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!List.of("update", "create", "validate", "none").contains(mode)) {
+            throw new IllegalArgumentException("unknown datajpa.sharding.schema: " + mode);
+        }
+        if (mode.equals("none")) {
+            return;
+        }
+
+        SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+        Integer previous = ShardContext.current();
+        try {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                ShardContext.set(shard);
+                if (mode.equals("validate")) {
+                    schemaManager.validateMappedObjects();
+                    continue;
+                }
+                boolean fresh;
+                if (mode.equals("create")) {
+                    schemaManager.dropMappedObjects(false);
+                    schemaManager.exportMappedObjects(false);
+                    fresh = true;
+                } else {
+                    fresh = !schemaExists();
+                    log.info("shard {} schema {}", shard, fresh ? "create" : "update");
+                    mappingMetadata.update();
+                }
+                // 새로 만든 sequence 만 이동, 기존 shard 의 sequence 를 되돌리면 id 가 중복됨
+                if (fresh && shard > 0) {
+                    moveSequences(shard);
+                }
+            }
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private boolean schemaExists() {
+        Long tables = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where lower(table_name) = 'member'", Long.class);
+        return tables != null && tables > 0;
+    }
+
+    // pooled optimizer 는 (sequence 값 - increment + 1) 부터 id 를 쓰므로 increment 만큼 더 이동
+    private void moveSequences(int shard) {
+        for (String sequence : SEQUENCES) {
+            List<Long> increment = jdbcTemplate.queryForList(
+                    "select increment from information_schema.sequences where lower(sequence_name) = ?", Long.class, sequence);
+            long restartWith = ShardRouter.firstId(shard) + (increment.isEmpty() ? 0 : increment.get(0));
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + restartWith);
+        }
+    }
+}
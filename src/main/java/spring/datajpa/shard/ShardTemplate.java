@@ -0,0 +1,90 @@
+package spring.datajpa.shard;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+public class ShardTemplate {
+
+    private final ShardRouter shardRouter;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService executor;
+
+    public ShardTemplate(ShardRouter shardRouter, PlatformTransactionManager transactionManager, ExecutorService executor) {
+        this.shardRouter = shardRouter;
+        this.transactionManager = transactionManager;
+        this.executor = executor;
+    }
+
+    // shard 를 지정하고 그 shard 커넥션으로 트랜잭션 실행
+    public <T> T execute(int shard, boolean readOnly, Supplier<T> callback) {
+        Integer previous = ShardContext.current();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !Objects.equals(previous, shard)) {
+            throw new IllegalStateException("cannot switch to shard " + shard + " inside a transaction bound to shard " + previous);
+        }
+
+        ShardContext.set(shard);
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status -> callback.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    // 모든 shard 에 병렬로 실행, 결과는 shard 순서
+    public <T> List<T> scatter(Supplier<T> callback) {
+        return scatter(IntStream.range(0, shardRouter.shardCount()).boxed().toList(), true, shard -> callback.get());
+    }
+
+    // 지정한 shard 들에 병렬로 실행 (각자 다른 thread 라 호출한 thread 에 트랜잭션이 있어도 됨), 결과는 shards 순서
+    public <T> List<T> scatter(List<Integer> shards, boolean readOnly, IntFunction<T> callback) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> execute(shard, readOnly, () -> callback.apply(shard)), executor));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    // shard 마다 차례로 실행 (결과를 모아 두지 않고 stream 으로 읽을 때), 호출한 thread 에 트랜잭션이 있어도 됨
+    public void forEach(boolean readOnly, Runnable callback) {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            join(CompletableFuture.runAsync(() -> execute(target, readOnly, () -> {
+                callback.run();
+                return null;
+            }), executor));
+        }
+    }
+
+    public ShardRouter getShardRouter() {
+        return shardRouter;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
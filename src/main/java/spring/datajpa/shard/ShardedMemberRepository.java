@@ -0,0 +1,46 @@
+package spring.datajpa.shard;
+
+import org.hibernate.Hibernate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.MemberSpec;
+import spring.datajpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+// 저장 / id 조회 / paging 은 MemberRepository, TeamRepository 가 직접 shard 로 감 (ShardRoutingInterceptor)
+// 여기는 인자만으로는 shard 를 알 수 없는 team 범위 조회를 team_id 의 shard 한 곳에서만 실행
+@ConditionalOnProperty(name = "datajpa.sharding.urls")
+@Component
+public class ShardedMemberRepository {
+
+    private final ShardTemplate shardTemplate;
+    private final ShardRouter shardRouter;
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+
+    public ShardedMemberRepository(ShardTemplate shardTemplate, MemberRepository memberRepository, TeamRepository teamRepository) {
+        this.shardTemplate = shardTemplate;
+        this.shardRouter = shardTemplate.getShardRouter();
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    public List<Member> findByTeam(Long teamId, Specification<Member> spec) {
+        return shardTemplate.execute(shardRouter.shardForTeam(teamId), true,
+                () -> memberRepository.findAll(MemberSpec.teamId(teamId).and(spec)));
+    }
+
+    public Optional<Team> findTeamWithMembers(Long teamId) {
+        return shardTemplate.execute(shardRouter.shardForTeam(teamId), true, () -> {
+            Optional<Team> team = teamRepository.findById(teamId);
+            team.ifPresent(t -> Hibernate.initialize(t.getMembers()));
+            return team;
+        });
+    }
+}
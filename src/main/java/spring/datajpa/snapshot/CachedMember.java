@@ -0,0 +1,6 @@
+package spring.datajpa.snapshot;
+
+import java.time.LocalDateTime;
+
+public record CachedMember(long id, String username, int age, Long teamId, LocalDateTime lastModifiedDate) {
+}
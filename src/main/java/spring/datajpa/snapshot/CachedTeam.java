@@ -0,0 +1,6 @@
+package spring.datajpa.snapshot;
+
+import java.time.LocalDateTime;
+
+public record CachedTeam(long id, String name, LocalDateTime lastModifiedDate) {
+}
@@ -0,0 +1,274 @@
+package spring.datajpa.snapshot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+// team / member 요약(reference data) read cache
+// - 기동 시 snapshot 파일을 read-only mmap -> 첫 요청부터 db 없이 응답 (warm restart)
+// - snapshot 에서 꺼낸 값과 revalidate-after 가 지난 값은 그대로 응답하고 background 에서 lastModifiedDate 로 version check
+//   (삭제됨 -> evict, 바뀜 -> 다시 조회)
+// - 종료 시 heap 에 있는 값만 snapshot 으로 씀 (한 번도 안 읽힌 snapshot 값은 버림)
+// datajpa.snapshot.path 가 없으면 snapshot 없이 일반 cache 로 동작
+@Slf4j
+@Component
+public class ReferenceDataCache {
+
+    private final EntityManager em;
+    private final Path path;
+    private final int memberCapacity;
+    private final long revalidateAfterNanos;
+    private final int revalidateBatchSize;
+    private final Counter hits;
+    private final Counter snapshotHits;
+    private final Counter misses;
+
+    // team 은 수가 적어 전부 heap 에 둠, member 는 LRU
+    private final Map<Long, Entry<CachedTeam>> teams = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Long, Entry<CachedMember>> members = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Long> staleTeams = ConcurrentHashMap.newKeySet();
+    private final Set<Long> staleMembers = ConcurrentHashMap.newKeySet();
+    // evict 된 id 는 snapshot 의 옛 값을 다시 꺼내지 않고 db 로 (db 에서 다시 읽으면 제거, 삭제된 id 는 남음)
+    private final Set<Long> evictedTeams = ConcurrentHashMap.newKeySet();
+    private final Set<Long> evictedMembers = ConcurrentHashMap.newKeySet();
+
+    private volatile SnapshotFile snapshot;
+
+    public ReferenceDataCache(EntityManager em,
+                              @Value("${datajpa.snapshot.path:}") String path,
+                              @Value("${datajpa.snapshot.member-capacity:100000}") int memberCapacity,
+                              @Value("${datajpa.snapshot.revalidate-after:60s}") Duration revalidateAfter,
+                              @Value("${datajpa.snapshot.revalidate-batch-size:1000}") int revalidateBatchSize,
+                              MeterRegistry meterRegistry) {
+        this.em = em;
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.memberCapacity = memberCapacity;
+        this.revalidateAfterNanos = revalidateAfter.toNanos();
+        this.revalidateBatchSize = revalidateBatchSize;
+        this.hits = meterRegistry.counter("datajpa.reference.cache", "result", "hit");
+        this.snapshotHits = meterRegistry.counter("datajpa.reference.cache", "result", "snapshot");
+        this.misses = meterRegistry.counter("datajpa.reference.cache", "result", "miss");
+    }
+
+    @PostConstruct
+    public void open() {
+        if (path == null) {
+            return;
+        }
+        try {
+            snapshot = SnapshotFile.open(path).orElse(null);
+            if (snapshot != null) {
+                log.info("reference data snapshot mapped: {} teams, {} members", snapshot.teamCount(), snapshot.memberCount());
+            }
+        } catch (IOException e) {
+            log.warn("reference data snapshot unreadable, starting cold: {}", path, e);
+        }
+    }
+
+    public Optional<CachedTeam> team(long id) {
+        Entry<CachedTeam> entry = teams.get(id);
+        if (entry != null) {
+            hits.increment();
+            checkLater(entry, id, staleTeams);
+            return Optional.of(entry.value());
+        }
+
+        SnapshotFile file = snapshot;
+        Optional<CachedTeam> cached = file == null || evictedTeams.contains(id) ? Optional.empty() : file.team(id);
+        if (cached.isPresent()) {
+            snapshotHits.increment();
+            teams.putIfAbsent(id, Entry.checked(cached.get()));
+            staleTeams.add(id);
+            return cached;
+        }
+
+        misses.increment();
+        return loadTeams(List.of(id)).stream().findFirst();
+    }
+
+    public Optional<CachedMember> member(long id) {
+        Entry<CachedMember> entry;
+        synchronized (members) {
+            entry = members.get(id);
+        }
+        if (entry != null) {
+            hits.increment();
+            checkLater(entry, id, staleMembers);
+            return Optional.of(entry.value());
+        }
+
+        SnapshotFile file = snapshot;
+        Optional<CachedMember> cached = file == null || evictedMembers.contains(id) ? Optional.empty() : file.member(id);
+        if (cached.isPresent()) {
+            snapshotHits.increment();
+            putMember(Entry.checked(cached.get()));
+            staleMembers.add(id);
+            return cached;
+        }
+
+        misses.increment();
+        return loadMembers(List.of(id)).stream().findFirst();
+    }
+
+    public void evictTeam(long id) {
+        teams.remove(id);
+        if (snapshot != null) {
+            evictedTeams.add(id);
+        }
+    }
+
+    public void evictMember(long id) {
+        synchronized (members) {
+            members.remove(id);
+        }
+        if (snapshot != null) {
+            evictedMembers.add(id);
+        }
+    }
+
+    // 쌓인 id 를 batch 로 version check, 요청 thread 는 기다리지 않음
+    @Scheduled(fixedDelayString = "${datajpa.snapshot.revalidate-interval-ms:1000}")
+    public void revalidate() {
+        revalidate(staleTeams, "Team", this::loadTeams, this::evictTeam,
+                id -> Optional.ofNullable(teams.get(id)).map(e -> e.value().lastModifiedDate()),
+                id -> teams.computeIfPresent(id, (key, e) -> e.checked()));
+        revalidate(staleMembers, "Member", this::loadMembers, this::evictMember,
+                id -> cachedMember(id).map(e -> e.value().lastModifiedDate()),
+                id -> cachedMember(id).ifPresent(e -> putMember(e.checked())));
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (path == null) {
+            return;
+        }
+        List<CachedTeam> teamValues = teams.values().stream().map(Entry::value).toList();
+        List<CachedMember> memberValues;
+        synchronized (members) {
+            memberValues = members.values().stream().map(Entry::value).toList();
+        }
+        try {
+            SnapshotFile.write(path, teamValues, memberValues);
+            log.info("reference data snapshot written: {} teams, {} members", teamValues.size(), memberValues.size());
+        } catch (IOException e) {
+            log.warn("reference data snapshot not written: {}", path, e);
+        }
+    }
+
+    private <T> void revalidate(Set<Long> stale, String entity, Function<List<Long>, List<T>> reload,
+                                LongConsumer evict,
+                                Function<Long, Optional<LocalDateTime>> cachedVersion,
+                                Consumer<Long> markChecked) {
+        while (!stale.isEmpty()) {
+            List<Long> ids = new ArrayList<>(revalidateBatchSize);
+            Iterator<Long> iterator = stale.iterator();
+            while (iterator.hasNext() && ids.size() < revalidateBatchSize) {
+                ids.add(iterator.next());
+                iterator.remove();
+            }
+
+            Map<Long, LocalDateTime> versions = new HashMap<>();
+            em.createQuery("select e.id, e.lastModifiedDate from " + entity + " e where e.id in :ids", Tuple.class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .forEach(t -> versions.put(t.get(0, Long.class), t.get(1, LocalDateTime.class)));
+
+            List<Long> changed = new ArrayList<>();
+            for (Long id : ids) {
+                if (!versions.containsKey(id)) {
+                    evict.accept(id);
+                } else if (!Objects.equals(versions.get(id), cachedVersion.apply(id).orElse(null))) {
+                    changed.add(id);
+                } else {
+                    markChecked.accept(id);
+                }
+            }
+            if (!changed.isEmpty()) {
+                reload.apply(changed);
+            }
+        }
+    }
+
+    private List<CachedTeam> loadTeams(List<Long> ids) {
+        List<CachedTeam> loaded = em.createQuery(
+                        "select t.id, t.name, t.lastModifiedDate from Team t where t.id in :ids", Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .map(t -> new CachedTeam(t.get(0, Long.class), t.get(1, String.class), t.get(2, LocalDateTime.class)))
+                .toList();
+        loaded.forEach(team -> {
+            teams.put(team.id(), Entry.checked(team));
+            evictedTeams.remove(team.id());
+        });
+        return loaded;
+    }
+
+    // m.team.id 는 fk 컬럼 -> team join 없음
+    private List<CachedMember> loadMembers(List<Long> ids) {
+        List<CachedMember> loaded = em.createQuery(
+                        "select m.id, m.username, m.age, m.team.id, m.lastModifiedDate from Member m where m.id in :ids",
+                        Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .map(t -> new CachedMember(t.get(0, Long.class), t.get(1, String.class), t.get(2, Integer.class),
+                        t.get(3, Long.class), t.get(4, LocalDateTime.class)))
+                .toList();
+        loaded.forEach(member -> {
+            putMember(Entry.checked(member));
+            evictedMembers.remove(member.id());
+        });
+        return loaded;
+    }
+
+    private Optional<Entry<CachedMember>> cachedMember(long id) {
+        synchronized (members) {
+            return Optional.ofNullable(members.get(id));
+        }
+    }
+
+    private void putMember(Entry<CachedMember> entry) {
+        synchronized (members) {
+            members.put(entry.value().id(), entry);
+            if (members.size() > memberCapacity) {
+                Iterator<Long> eldest = members.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void checkLater(Entry<?> entry, long id, Set<Long> stale) {
+        if (System.nanoTime() - entry.checkedAt() > revalidateAfterNanos) {
+            stale.add(id);
+        }
+    }
+
+    // checkedAt: 마지막으로 db 와 맞춰 본 시각 (snapshot 에서 온 값은 꺼낼 때 바로 stale 목록에 넣음)
+    private record Entry<T>(T value, long checkedAt) {
+
+        static <T> Entry<T> checked(T value) {
+            return new Entry<>(value, System.nanoTime());
+        }
+
+        Entry<T> checked() {
+            return checked(value);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package spring.datajpa.snapshot;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+
+import java.util.function.Consumer;
+
+// Member / Team 변경을 commit 이후에 ReferenceDataCache 에서 evict (다음 조회는 db, rollback 되면 그대로)
+// 새로 생긴 entity 는 cache 에 없으므로 insert 는 무시
+public class ReferenceDataListener {
+
+    private final ObjectProvider<ReferenceDataCache> cache;
+
+    public ReferenceDataListener(ObjectProvider<ReferenceDataCache> cache) {
+        this.cache = cache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (entity instanceof Member member) {
+            Long id = member.getId();
+            afterCommit(target -> target.evictMember(id));
+        } else if (entity instanceof Team team) {
+            Long id = team.getId();
+            afterCommit(target -> target.evictTeam(id));
+        }
+    }
+
+    private void afterCommit(Consumer<ReferenceDataCache> evict) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.ifAvailable(evict);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.ifAvailable(evict);
+            }
+        });
+    }
+}
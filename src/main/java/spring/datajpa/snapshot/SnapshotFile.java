@@ -0,0 +1,228 @@
+package spring.datajpa.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// reference data snapshot 파일 형식 (big endian)
+//   header : magic, format, teamCount, memberCount
+//   index  : 정렬된 team id long[], data offset int[], member 도 동일 -> mmap 한 채로 이진 탐색, 시작 시 전체 parse 없음
+//   data   : team   = lastModified(epochSecond long, nano int), name(short 길이 + utf8)
+//            member = lastModified, age int, teamId long (-1 = 없음), username
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x444A5331; // DJS1
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final long NO_TEAM = -1;
+
+    private final MappedByteBuffer buffer;
+    private final int teamCount;
+    private final int memberCount;
+    private final int teamIndex;
+    private final int memberIndex;
+    private final int data;
+
+    private SnapshotFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IllegalArgumentException("not a reference data snapshot");
+        }
+        this.teamCount = buffer.getInt(8);
+        this.memberCount = buffer.getInt(12);
+        this.teamIndex = HEADER_SIZE;
+        this.memberIndex = teamIndex + teamCount * 12;
+        this.data = memberIndex + memberCount * 12;
+    }
+
+    // read-only mmap, 파일이 없거나 형식이 다르면 empty
+    public static Optional<SnapshotFile> open(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_SIZE) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // mapping 은 channel 을 닫아도 유지됨
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(new SnapshotFile(buffer));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    // 임시 파일에 쓰고 rename -> 쓰다가 죽어도 이전 snapshot 은 온전함
+    public static void write(Path path, List<CachedTeam> teams, List<CachedMember> members) throws IOException {
+        List<CachedTeam> sortedTeams = teams.stream().sorted(Comparator.comparingLong(CachedTeam::id)).toList();
+        List<CachedMember> sortedMembers = members.stream().sorted(Comparator.comparingLong(CachedMember::id)).toList();
+
+        List<byte[]> teamRecords = new ArrayList<>(sortedTeams.size());
+        List<byte[]> memberRecords = new ArrayList<>(sortedMembers.size());
+        int dataSize = 0;
+        for (CachedTeam team : sortedTeams) {
+            byte[] record = encode(team);
+            teamRecords.add(record);
+            dataSize += record.length;
+        }
+        for (CachedMember member : sortedMembers) {
+            byte[] record = encode(member);
+            memberRecords.add(record);
+            dataSize += record.length;
+        }
+
+        int indexSize = (sortedTeams.size() + sortedMembers.size()) * 12;
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + indexSize + dataSize);
+        out.putInt(MAGIC).putInt(FORMAT).putInt(sortedTeams.size()).putInt(sortedMembers.size());
+
+        int offset = 0;
+        for (int i = 0; i < sortedTeams.size(); i++) {
+            out.putLong(sortedTeams.get(i).id());
+        }
+        for (byte[] record : teamRecords) {
+            out.putInt(offset);
+            offset += record.length;
+        }
+        for (int i = 0; i < sortedMembers.size(); i++) {
+            out.putLong(sortedMembers.get(i).id());
+        }
+        for (byte[] record : memberRecords) {
+            out.putInt(offset);
+            offset += record.length;
+        }
+        teamRecords.forEach(out::put);
+        memberRecords.forEach(out::put);
+        out.flip();
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int teamCount() {
+        return teamCount;
+    }
+
+    public int memberCount() {
+        return memberCount;
+    }
+
+    public Optional<CachedTeam> team(long id) {
+        int slot = search(teamIndex, teamCount, id);
+        return slot < 0 ? Optional.empty() : Optional.of(readTeam(id, offset(teamIndex, teamCount, slot)));
+    }
+
+    public Optional<CachedMember> member(long id) {
+        int slot = search(memberIndex, memberCount, id);
+        return slot < 0 ? Optional.empty() : Optional.of(readMember(id, offset(memberIndex, memberCount, slot)));
+    }
+
+    public void forEachTeam(Consumer<CachedTeam> action) {
+        for (int slot = 0; slot < teamCount; slot++) {
+            action.accept(readTeam(buffer.getLong(teamIndex + slot * 8), offset(teamIndex, teamCount, slot)));
+        }
+    }
+
+    public void forEachMember(Consumer<CachedMember> action) {
+        for (int slot = 0; slot < memberCount; slot++) {
+            action.accept(readMember(buffer.getLong(memberIndex + slot * 8), offset(memberIndex, memberCount, slot)));
+        }
+    }
+
+    private int search(int index, int count, long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(index + mid * 8);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int offset(int index, int count, int slot) {
+        return data + buffer.getInt(index + count * 8 + slot * 4);
+    }
+
+    private CachedTeam readTeam(long id, int position) {
+        LocalDateTime lastModified = readTime(position);
+        return new CachedTeam(id, readString(position + 12), lastModified);
+    }
+
+    private CachedMember readMember(long id, int position) {
+        LocalDateTime lastModified = readTime(position);
+        int age = buffer.getInt(position + 12);
+        long teamId = buffer.getLong(position + 16);
+        return new CachedMember(id, readString(position + 24), age, teamId == NO_TEAM ? null : teamId, lastModified);
+    }
+
+    private LocalDateTime readTime(int position) {
+        long epochSecond = buffer.getLong(position);
+        return epochSecond == NO_TIME ? null
+                : LocalDateTime.ofEpochSecond(epochSecond, buffer.getInt(position + 8), ZoneOffset.UTC);
+    }
+
+    private String readString(int position) {
+        int length = buffer.getShort(position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(CachedTeam team) {
+        byte[] name = utf8(team.name());
+        ByteBuffer record = ByteBuffer.allocate(12 + 2 + name.length);
+        putTime(record, team.lastModifiedDate());
+        record.putShort((short) name.length).put(name);
+        return record.array();
+    }
+
+    private static byte[] encode(CachedMember member) {
+        byte[] username = utf8(member.username());
+        ByteBuffer record = ByteBuffer.allocate(12 + 4 + 8 + 2 + username.length);
+        putTime(record, member.lastModifiedDate());
+        record.putInt(member.age())
+                .putLong(member.teamId() == null ? NO_TEAM : member.teamId())
+                .putShort((short) username.length).put(username);
+        return record.array();
+    }
+
+    private static void putTime(ByteBuffer record, LocalDateTime time) {
+        if (time == null) {
+            record.putLong(NO_TIME).putInt(0);
+        } else {
+            record.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+        }
+    }
+
+    // 길이는 unsigned short 로 저장 (그 이상은 잘라냄)
+    private static byte[] utf8(String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length > 0xFFFF ? Arrays.copyOf(bytes, 0xFFFF) : bytes;
+    }
+}
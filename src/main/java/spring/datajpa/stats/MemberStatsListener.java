@@ -0,0 +1,37 @@
+package spring.datajpa.stats;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import spring.datajpa.entity.Member;
+
+// flush 시점(같은 트랜잭션) 에 요약 테이블 갱신
+public class MemberStatsListener {
+
+    private final ObjectProvider<MemberStatsService> memberStatsService;
+
+    public MemberStatsListener(ObjectProvider<MemberStatsService> memberStatsService) {
+        this.memberStatsService = memberStatsService;
+    }
+
+    @PostPersist
+    public void postPersist(Member member) {
+        memberStatsService.ifAvailable(stats -> stats.added(teamId(member), member.getAge()));
+    }
+
+    @PostUpdate
+    public void postUpdate(Member member) {
+        memberStatsService.ifAvailable(stats ->
+                stats.changed(member.getLoadedTeamId(), member.getLoadedAge(), teamId(member), member.getAge()));
+    }
+
+    @PostRemove
+    public void postRemove(Member member) {
+        memberStatsService.ifAvailable(stats -> stats.removed(member.getLoadedTeamId(), member.getLoadedAge()));
+    }
+
+    private static Long teamId(Member member) {
+        return member.getTeam() == null ? null : member.getTeam().getId();
+    }
+}
@@ -0,0 +1,171 @@
+package spring.datajpa.stats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import spring.datajpa.report.MemberScanRow;
+import spring.datajpa.shard.AllShards;
+
+import java.util.*;
+
+// team / 나이 구간별 요약 테이블을 member 변경분 만큼만 갱신 (JdbcTemplate -> 현재 jpa 트랜잭션의 커넥션 사용)
+@RequiredArgsConstructor
+@Component
+public class MemberStatsService {
+
+    public static final int BUCKET_SIZE = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AllShards allShards;
+
+    public void added(Long teamId, int age) {
+        if (teamId != null) {
+            add("team_age_stats", "team_id", teamId, age);
+        }
+        add("age_bucket_stats", "bucket_start", bucket(age), age);
+    }
+
+    public void removed(Long teamId, int age) {
+        if (teamId != null) {
+            remove("team_age_stats", "team_id", teamId, age);
+        }
+        remove("age_bucket_stats", "bucket_start", bucket(age), age);
+    }
+
+    public void changed(Long oldTeamId, int oldAge, Long newTeamId, int newAge) {
+        if (Objects.equals(oldTeamId, newTeamId) && oldAge == newAge) {
+            return;
+        }
+        removed(oldTeamId, oldAge);
+        added(newTeamId, newAge);
+    }
+
+    // bulk delete 된 member 들, 그룹별로 모아서 한번씩 갱신 (min/max 가 빠졌을 수 있으면 stale)
+    public void removedAll(List<MemberScanRow> rows) {
+        Map<Long, long[]> teams = new HashMap<>();
+        Map<Integer, long[]> buckets = new HashMap<>();
+        for (MemberScanRow row : rows) {
+            if (row.teamId() != null) {
+                accumulate(teams.computeIfAbsent(row.teamId(), k -> newGroup()), row.age());
+            }
+            accumulate(buckets.computeIfAbsent(bucket(row.age()), k -> newGroup()), row.age());
+        }
+        removeGroups("team_age_stats", "team_id", teams);
+        removeGroups("age_bucket_stats", "bucket_start", buckets);
+    }
+
+    // update member set age = age + 1 where age >= :age 이후 호출
+    public void bulkAgePlus(int age) {
+        jdbcTemplate.update("update team_age_stats s set" +
+                " age_sum = age_sum + (select count(*) from member m where m.team_id = s.team_id and m.age > ?)," +
+                " min_age = case when min_age >= ? then min_age + 1 else min_age end," +
+                " max_age = case when max_age >= ? then max_age + 1 else max_age end" +
+                " where max_age >= ? or max_age is null", age, age, age, age);
+
+        int bucket = bucket(age);
+        jdbcTemplate.update("delete from age_bucket_stats where bucket_start >= ?", bucket);
+        jdbcTemplate.update("insert into age_bucket_stats (bucket_start, member_count, age_sum, min_age, max_age)" +
+                " select age / " + BUCKET_SIZE + " * " + BUCKET_SIZE + ", count(*), sum(age), min(age), max(age)" +
+                " from member where age >= ? group by age / " + BUCKET_SIZE + " * " + BUCKET_SIZE, bucket);
+    }
+
+    // stale(null) 인 min/max 를 주기적으로 다시 계산 (조회 요청은 쓰지 않음, 그 사이 조회하면 min/max 가 null)
+    // 요약 테이블은 shard 마다 그 shard 의 member 로 계산
+    @Scheduled(fixedDelayString = "${datajpa.stats.refresh-interval-ms:1000}")
+    @Transactional
+    public void refreshStale() {
+        allShards.forEach(false, () -> {
+            jdbcTemplate.update("update team_age_stats s set" +
+                    " min_age = (select min(age) from member m where m.team_id = s.team_id)," +
+                    " max_age = (select max(age) from member m where m.team_id = s.team_id)" +
+                    " where min_age is null or max_age is null");
+            jdbcTemplate.update("update age_bucket_stats s set" +
+                    " min_age = (select min(age) from member m where m.age between s.bucket_start and s.bucket_start + " + (BUCKET_SIZE - 1) + ")," +
+                    " max_age = (select max(age) from member m where m.age between s.bucket_start and s.bucket_start + " + (BUCKET_SIZE - 1) + ")" +
+                    " where min_age is null or max_age is null");
+        });
+    }
+
+    @Transactional
+    public void rebuild() {
+        allShards.forEach(false, () -> {
+            jdbcTemplate.update("delete from team_age_stats");
+            jdbcTemplate.update("insert into team_age_stats (team_id, member_count, age_sum, min_age, max_age)" +
+                    " select team_id, count(*), sum(age), min(age), max(age)" +
+                    " from member where team_id is not null group by team_id");
+
+            jdbcTemplate.update("delete from age_bucket_stats");
+            jdbcTemplate.update("insert into age_bucket_stats (bucket_start, member_count, age_sum, min_age, max_age)" +
+                    " select age / " + BUCKET_SIZE + " * " + BUCKET_SIZE + ", count(*), sum(age), min(age), max(age)" +
+                    " from member group by age / " + BUCKET_SIZE + " * " + BUCKET_SIZE);
+        });
+    }
+
+    // update 가 0 건이면 insert, 그 사이 다른 트랜잭션이 같은 key 를 먼저 insert 했으면 (unique 위반) 다시 update
+    private void add(String table, String keyColumn, Object key, int age) {
+        if (increment(table, keyColumn, key, age) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into " + table + " (" + keyColumn + ", member_count, age_sum, min_age, max_age)" +
+                    " values (?, 1, ?, ?, ?)", key, age, age, age);
+        } catch (DuplicateKeyException e) {
+            increment(table, keyColumn, key, age);
+        }
+    }
+
+    private int increment(String table, String keyColumn, Object key, int age) {
+        return jdbcTemplate.update("update " + table + " set member_count = member_count + 1, age_sum = age_sum + ?," +
+                " min_age = case when min_age is null then null else least(min_age, ?) end," +
+                " max_age = case when max_age is null then null else greatest(max_age, ?) end" +
+                " where " + keyColumn + " = ?", age, age, age, key);
+    }
+
+    // min/max 였던 값이 빠지면 null(stale) 로 두고 refreshStale() 에서 그 그룹만 다시 계산
+    // (flush 중에는 member 변경이 아직 jdbc batch 에 남아 있을 수 있어서 여기서 member 를 읽지 않음)
+    private void remove(String table, String keyColumn, Object key, int age) {
+        jdbcTemplate.update("update " + table + " set member_count = member_count - 1, age_sum = age_sum - ?," +
+                " min_age = case when min_age = ? then null else min_age end," +
+                " max_age = case when max_age = ? then null else max_age end" +
+                " where " + keyColumn + " = ?", age, age, age, key);
+        jdbcTemplate.update("delete from " + table + " where " + keyColumn + " = ? and member_count <= 0", key);
+    }
+
+    private <K> void removeGroups(String table, String keyColumn, Map<K, long[]> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<K, long[]>> entries = new ArrayList<>(groups.entrySet());
+        jdbcTemplate.batchUpdate("update " + table + " set member_count = member_count - ?, age_sum = age_sum - ?," +
+                " min_age = case when min_age >= ? then null else min_age end," +
+                " max_age = case when max_age <= ? then null else max_age end" +
+                " where " + keyColumn + " = ?", entries, entries.size(), (ps, entry) -> {
+            long[] group = entry.getValue();
+            ps.setLong(1, group[0]);
+            ps.setLong(2, group[1]);
+            ps.setLong(3, group[2]);
+            ps.setLong(4, group[3]);
+            ps.setObject(5, entry.getKey());
+        });
+        jdbcTemplate.update("delete from " + table + " where member_count <= 0");
+    }
+
+    // count, sum, min, max
+    private static long[] newGroup() {
+        return new long[]{0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE};
+    }
+
+    private static void accumulate(long[] group, int age) {
+        group[0]++;
+        group[1] += age;
+        group[2] = Math.min(group[2], age);
+        group[3] = Math.max(group[3], age);
+    }
+
+    private static int bucket(int age) {
+        return Math.floorDiv(age, BUCKET_SIZE) * BUCKET_SIZE;
+    }
+}
@@ -0,0 +1,170 @@
+package spring.datajpa.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// 배포 직후 첫 호출들이 HQL parsing / SQL rendering / JIT 비용을 떠안지 않도록 기동 중에 모든 repository query method 를 한 번씩 실행
+// - @Query (jpql) 는 createQuery 로 Hibernate query plan cache 에 올림
+// - execute=true 면 sentinel 인자로 실제 실행 (derived query, projection, paging count, specification 까지) -> jdbc statement 도 준비됨
+//   read-only + rollback-only 트랜잭션, @Modifying / deleteBy / removeBy 는 실행하지 않음
+// ApplicationRunner 는 ReadinessState.ACCEPTING_TRAFFIC 이전에 실행됨 -> warmup 이 끝나야 /actuator/health/readiness 가 UP
+// ex) --datajpa.warmup.enabled=true --datajpa.warmup.iterations=20
+@Slf4j
+@ConditionalOnProperty(name = "datajpa.warmup.enabled", havingValue = "true")
+@Component
+public class RepositoryWarmup implements ApplicationRunner {
+
+    private final ApplicationContext applicationContext;
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer timer;
+
+    @Value("${datajpa.warmup.execute:true}")
+    private boolean execute;
+
+    @Value("${datajpa.warmup.iterations:1}")
+    private int iterations;
+
+    // query 하나라도 실패하면 기동 실패 (잘못된 query 를 배포 시점에 발견)
+    @Value("${datajpa.warmup.fail-on-error:true}")
+    private boolean failOnError;
+
+    public RepositoryWarmup(ApplicationContext applicationContext, EntityManager em,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.applicationContext = applicationContext;
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.timer = meterRegistry.timer("datajpa.warmup");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        WarmupResult result = warmup();
+        log.info("repository warmup = {}", result);
+        if (failOnError && !result.failures().isEmpty()) {
+            throw new IllegalStateException("repository warmup failed: " + result.failures());
+        }
+    }
+
+    public WarmupResult warmup() {
+        long start = System.nanoTime();
+        Repositories repositories = new Repositories(applicationContext);
+
+        int methods = 0;
+        int executed = 0;
+        int compiled = 0;
+        List<String> skipped = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+
+        for (Class<?> domainType : repositories) {
+            Optional<Object> repository = repositories.getRepositoryFor(domainType);
+            if (repository.isEmpty()) {
+                continue;
+            }
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+
+            for (Method method : information.getQueryMethods()) {
+                methods++;
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                try {
+                    if (compile(method)) {
+                        compiled++;
+                    }
+                    Optional<Object[]> args = SentinelArguments.of(method, domainType);
+                    if (!execute || args.isEmpty() || modifying(method)) {
+                        skipped.add(name);
+                        continue;
+                    }
+                    for (int i = 0; i < iterations; i++) {
+                        invoke(repository.get(), method, args.get());
+                    }
+                    executed++;
+                } catch (RuntimeException e) {
+                    failures.add(name + ": " + e.getMessage());
+                }
+            }
+
+            if (execute && repository.get() instanceof JpaSpecificationExecutor<?> executor) {
+                try {
+                    for (int i = 0; i < iterations; i++) {
+                        specification(executor);
+                    }
+                } catch (RuntimeException e) {
+                    failures.add(information.getRepositoryInterface().getSimpleName() + ".findAll(Specification): "
+                            + e.getMessage());
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new WarmupResult(methods, executed, compiled, skipped, failures, elapsed / 1_000_000);
+    }
+
+    // 실행하지 않는 경우에도 jpql 은 parsing 해서 plan cache 에 올려 둠
+    private boolean compile(Method method) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query == null || query.nativeQuery() || query.value().isEmpty()) {
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status -> em.createQuery(query.value()));
+        return true;
+    }
+
+    private boolean modifying(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Modifying.class)
+                || method.getName().startsWith("delete") || method.getName().startsWith("remove");
+    }
+
+    private void invoke(Object repository, Method method, Object[] args) {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            try {
+                Object result = method.invoke(repository, args);
+                if (result instanceof AutoCloseable closeable) {
+                    closeable.close();
+                }
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // criteria -> sql 경로 + count query
+    @SuppressWarnings("unchecked")
+    private void specification(JpaSpecificationExecutor<?> executor) {
+        Specification<Object> none = (root, query, cb) -> cb.disjunction();
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            ((JpaSpecificationExecutor<Object>) executor).findAll(none, PageRequest.of(0, 1));
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package spring.datajpa.warmup;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// 어떤 row 와도 맞지 않을 값 (id, age 는 -1, 문자열은 SENTINEL), paging 은 1건
+// 만들 수 없는 타입이 있으면 empty -> 해당 method 는 실행하지 않음
+final class SentinelArguments {
+
+    static final String SENTINEL = "__warmup__";
+
+    private SentinelArguments() {
+    }
+
+    static Optional<Object[]> of(Method method, Class<?> domainType) {
+        Object[] args = new Object[method.getParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            ResolvableType type = ResolvableType.forMethodParameter(new MethodParameter(method, i));
+            Optional<Object> value = value(type, domainType);
+            if (value.isEmpty()) {
+                return Optional.empty();
+            }
+            args[i] = value.get();
+        }
+        return Optional.of(args);
+    }
+
+    private static Optional<Object> value(ResolvableType type, Class<?> domainType) {
+        Class<?> raw = type.resolve(Object.class);
+        if (raw == String.class) {
+            return Optional.of(SENTINEL);
+        }
+        if (raw == int.class || raw == Integer.class) {
+            return Optional.of(-1);
+        }
+        if (raw == long.class || raw == Long.class) {
+            return Optional.of(-1L);
+        }
+        if (raw == boolean.class || raw == Boolean.class) {
+            return Optional.of(false);
+        }
+        if (raw == LocalDateTime.class) {
+            return Optional.of(LocalDateTime.of(1970, 1, 1, 0, 0));
+        }
+        if (raw == LocalDate.class) {
+            return Optional.of(LocalDate.of(1970, 1, 1));
+        }
+        if (raw.isEnum()) {
+            return Optional.of(raw.getEnumConstants()[0]);
+        }
+        if (Pageable.class.isAssignableFrom(raw)) {
+            return Optional.of(PageRequest.of(0, 1));
+        }
+        if (raw == Sort.class) {
+            return Optional.of(Sort.unsorted());
+        }
+        // dynamic projection (Class<T> type) -> entity 그대로
+        if (raw == Class.class) {
+            return Optional.of(domainType);
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            Optional<Object> element = value(type.asCollection().getGeneric(0), domainType);
+            return element.map(e -> Set.class.isAssignableFrom(raw) ? Set.of(e) : List.of(e));
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,8 @@
+package spring.datajpa.warmup;
+
+import java.util.List;
+
+// methods: 전체 query method 수, skipped: 인자를 만들 수 없거나 수정 query 라 실행하지 않은 method
+public record WarmupResult(int methods, int executed, int compiled, List<String> skipped, List<String> failures,
+                           long elapsedMillis) {
+}
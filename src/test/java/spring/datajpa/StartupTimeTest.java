@@ -0,0 +1,38 @@
+package spring.datajpa;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimeTest {
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        long start = System.nanoTime();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .profiles("fast")
+                .run("--server.port=0")) {
+
+            long started = System.nanoTime();
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?size=1")).build();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+            long firstResponse = System.nanoTime();
+
+            System.out.println("startup(ms) = " + (started - start) / 1_000_000);
+            System.out.println("timeToFirstRequest(ms) = " + (firstResponse - start) / 1_000_000);
+
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package spring.datajpa.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberPageSerializerTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void page() throws Exception {
+        List<MemberDto> content = List.of(new MemberDto(1L, "user1", "teamA"), new MemberDto(2L, "user2", null));
+        Page<MemberDto> page = new PageImpl<>(content, PageRequest.of(0, 2), 5);
+
+        String json = objectMapper.writeValueAsString(MemberPage.of(page));
+
+        assertThat(json).isEqualTo("{\"content\":[{\"id\":1,\"username\":\"user1\",\"teamName\":\"teamA\"},"
+                + "{\"id\":2,\"username\":\"user2\"}],\"number\":0,\"size\":2,\"hasNext\":true,\"totalElements\":5}");
+    }
+
+    @Test
+    void slice() throws Exception {
+        Slice<MemberDto> slice = new SliceImpl<>(List.of(new MemberDto(1L, "user1", null)), PageRequest.of(1, 1), false);
+
+        String json = objectMapper.writeValueAsString(MemberPage.of(slice, "abc"));
+
+        assertThat(json).isEqualTo("{\"content\":[{\"id\":1,\"username\":\"user1\"}],\"number\":1,\"size\":1,\"hasNext\":false,\"cursor\":\"abc\"}");
+    }
+
+    @Test
+    void compareWithPageImpl() throws Exception {
+        List<MemberDto> content = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            content.add(new MemberDto(i, "user" + i, null));
+        }
+        Page<MemberDto> page = new PageImpl<>(content, PageRequest.of(0, 100, Sort.by("username")), 10_000);
+        MemberPage memberPage = MemberPage.of(page);
+
+        int pageImplBytes = objectMapper.writeValueAsBytes(page).length;
+        int memberPageBytes = objectMapper.writeValueAsBytes(memberPage).length;
+
+        long pageImplNanos = time(() -> objectMapper.writeValueAsBytes(page));
+        long memberPageNanos = time(() -> objectMapper.writeValueAsBytes(memberPage));
+
+        System.out.println("pageImplBytes = " + pageImplBytes);
+        System.out.println("memberPageBytes = " + memberPageBytes);
+        System.out.println("pageImpl(ns/op) = " + pageImplNanos);
+        System.out.println("memberPage(ns/op) = " + memberPageNanos);
+
+        assertThat(memberPageBytes).isLessThan(pageImplBytes);
+    }
+
+    private static long time(Serialization serialization) throws Exception {
+        for (int i = 0; i < 2_000; i++) {
+            serialization.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            serialization.run();
+        }
+        return (System.nanoTime() - start) / 10_000;
+    }
+
+    private interface Serialization {
+        void run() throws Exception;
+    }
+}
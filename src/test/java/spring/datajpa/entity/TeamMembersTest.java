@@ -0,0 +1,100 @@
+package spring.datajpa.entity;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.dataset.DatasetGenerator;
+import spring.datajpa.dataset.DatasetResult;
+import spring.datajpa.dataset.DatasetSpec;
+import spring.datajpa.index.UsernameIndexUpdates;
+import spring.datajpa.stats.MemberStatsService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TeamMembersTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    DatasetGenerator datasetGenerator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberStatsService memberStatsService;
+
+    @Autowired
+    ObjectProvider<UsernameIndexUpdates> usernameIndexes;
+
+    DatasetResult dataset;
+
+    // 다른 테스트가 같은 db 를 쓰므로 생성한 10k member / team 은 지움
+    @AfterEach
+    void tearDown() {
+        if (dataset == null) {
+            return;
+        }
+        usernameIndexes.forEach(UsernameIndexUpdates::invalidate);
+        jdbcTemplate.update("delete from member where member_id between ? and ?", dataset.firstMemberId(), dataset.lastMemberId());
+        jdbcTemplate.update("delete from team where team_id between ? and ?", dataset.firstTeamId(), dataset.lastTeamId());
+        memberStatsService.rebuild();
+        usernameIndexes.forEach(UsernameIndexUpdates::load);
+    }
+
+    @Test
+    void addToBigTeamWithoutLoadingMembers() {
+        dataset = datasetGenerator.generate(new DatasetSpec(49, 1, 10_000, 0, 0, 100));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = em.find(Team.class, dataset.firstTeamId());
+            Team other = new Team("other");
+            em.persist(other);
+            statistics.clear();
+
+            Member member = new Member("newcomer", 10, team);
+            em.persist(member);
+
+            // sequence 할당 외에는 sql 없음, members 컬렉션은 그대로
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+            assertThat(statistics.getCollectionFetchCount()).isZero();
+            assertThat(Hibernate.isInitialized(team.getMembers())).isFalse();
+
+            // flush 해도 member insert 만, team update / members 조회 없음
+            em.flush();
+            assertThat(statistics.getEntityUpdateCount()).isZero();
+            assertThat(statistics.getCollectionFetchCount()).isZero();
+            assertThat(Hibernate.isInitialized(team.getMembers())).isFalse();
+
+            // 나중에 읽으면 queue 에 있던 add 가 반영됨
+            assertThat(team.getMembers()).hasSize(10_001).contains(member);
+
+            Long teamVersion = team.getVersion();
+            Long otherVersion = other.getVersion();
+            member.changeTeam(other);
+            assertThat(team.getMembers()).hasSize(10_000).doesNotContain(member);
+            assertThat(other.getMembers()).containsExactly(member);
+
+            // members 변경은 team version 을 올리지 않음 (@OptimisticLock(excluded = true))
+            em.flush();
+            assertThat(team.getVersion()).isEqualTo(teamVersion);
+            assertThat(other.getVersion()).isEqualTo(otherVersion);
+
+            status.setRollbackOnly();
+        });
+    }
+}
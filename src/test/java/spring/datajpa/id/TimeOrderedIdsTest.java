@@ -0,0 +1,37 @@
+package spring.datajpa.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TimeOrderedIdsTest {
+
+    @Test
+    void monotonicVersion7() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(TimeOrderedIds.nextString());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        UUID uuid = UUID.fromString(ids.get(0));
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isCloseTo(System.currentTimeMillis(), within(60_000L));
+    }
+
+    @Test
+    void uniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(TimeOrderedIds.next()));
+        assertThat(ids).hasSize(200_000);
+    }
+}
@@ -0,0 +1,65 @@
+package spring.datajpa.importer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberCsvImporterTest {
+
+    @Autowired
+    MemberCsvImporter memberCsvImporter;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    void importCsv() throws Exception {
+        Team existing = teamRepository.save(new Team("importTeamA"));
+        String csv = """
+                username,age,teamName
+                import1,10,importTeamA
+                import2,20,importTeamB
+                import3,abc,importTeamA
+                ,30,importTeamA
+                import4,40,importTeamB
+                import5,50
+
+                import6,60,
+                """;
+
+        ImportResult result = memberCsvImporter.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.rows()).isEqualTo(7);
+        assertThat(result.imported()).isEqualTo(5);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.createdTeams()).isEqualTo(1);
+        assertThat(result.badRows()).extracting(ImportResult.BadRow::line).containsExactly(4L, 5L);
+
+        Member member1 = memberRepository.findByUsername("import1").get(0);
+        assertThat(member1.getAge()).isEqualTo(10);
+        assertThat(member1.getTeam().getId()).isEqualTo(existing.getId());
+        assertThat(member1.getCreatedDate()).isNotNull();
+        assertThat(member1.getCreatedBy()).isNotNull();
+
+        List<Member> teamB = memberRepository.findByUsername("import2");
+        Long teamBId = teamB.get(0).getTeam().getId();
+        assertThat(memberRepository.findByUsername("import4").get(0).getTeam().getId()).isEqualTo(teamBId);
+        assertThat(memberRepository.findByUsername("import6").get(0).getTeam()).isNull();
+
+        assertThat(memberCsvImporter.progress()).hasValueSatisfying(progress -> assertThat(progress.isDone()).isTrue());
+    }
+}
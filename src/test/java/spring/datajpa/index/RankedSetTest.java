@@ -0,0 +1,40 @@
+package spring.datajpa.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedSetTest {
+
+    @Test
+    void sameAsTreeSet() {
+        Random random = new Random(7);
+        RankedSet<Integer> set = new RankedSet<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        List<Integer> all = new ArrayList<>(expected);
+        assertThat(set.range(0, Integer.MAX_VALUE)).isEqualTo(all);
+        for (int value = -1; value <= 2_000; value += 97) {
+            assertThat(set.rank(value)).isEqualTo((long) expected.headSet(value).size());
+        }
+        assertThat(set.range(100, 10)).isEqualTo(all.subList(100, 110));
+        assertThat(set.range(all.size() - 3, 10)).isEqualTo(all.subList(all.size() - 3, all.size()));
+        assertThat(set.range(all.size(), 10)).isEmpty();
+    }
+}
@@ -0,0 +1,127 @@
+package spring.datajpa.index;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsernameIndexTest {
+
+    @Test
+    void addFindRemove() {
+        UsernameIndex index = new UsernameIndex(4);
+        for (int i = 1; i <= 1000; i++) {
+            index.add("user" + i, i);
+        }
+
+        assertThat(index.size()).isEqualTo(1000);
+        assertThat(index.find("user7")).isEqualTo(7L);
+        assertThat(index.find("nobody")).isEqualTo(UsernameIndex.ABSENT);
+
+        index.add("user7", 2000);
+        assertThat(index.find("user7")).isEqualTo(UsernameIndex.AMBIGUOUS);
+
+        index.remove("user7");
+        assertThat(index.find("user7")).isEqualTo(UsernameIndex.AMBIGUOUS);
+        index.remove("user7");
+        assertThat(index.find("user7")).isEqualTo(UsernameIndex.ABSENT);
+
+        for (int i = 1; i <= 1000; i++) {
+            index.remove("user" + i);
+            index.add("renamed" + i, i);
+        }
+        assertThat(index.size()).isEqualTo(1000);
+        assertThat(index.find("renamed1000")).isEqualTo(1000L);
+    }
+
+    @Test
+    void replace() {
+        UsernameIndex index = new UsernameIndex(4);
+        index.add("user1", 1);
+
+        // rebuild 중 add 가 이미 반영된 상태에서 다시 적용돼도 같은 결과
+        index.replace("user1", new long[]{1});
+        index.replace("user1", new long[]{1});
+        assertThat(index.find("user1")).isEqualTo(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.replace("user1", new long[]{1, 2});
+        assertThat(index.find("user1")).isEqualTo(UsernameIndex.AMBIGUOUS);
+
+        index.replace("user1", new long[0]);
+        assertThat(index.find("user1")).isEqualTo(UsernameIndex.ABSENT);
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void bloomFilter() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloomFilter.mightContain("user" + i)).isTrue();
+            if (bloomFilter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        System.out.println("falsePositives = " + falsePositives);
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Tag("load")
+    @Test
+    void benchmark() {
+        int n = 1_000_000;
+        String[] usernames = new String[n];
+        for (int i = 0; i < n; i++) {
+            usernames[i] = "user" + i;
+        }
+
+        System.gc();
+        long before = usedMemory();
+        UsernameIndex index = new UsernameIndex(n);
+        BloomFilter bloomFilter = new BloomFilter(n * 2, 0.01);
+        for (int i = 0; i < n; i++) {
+            index.add(usernames[i], i + 1);
+            bloomFilter.add(usernames[i]);
+        }
+        System.gc();
+        long after = usedMemory();
+
+        long hits = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < n; i++) {
+                if (bloomFilter.mightContain(usernames[i]) && index.find(usernames[i]) > 0) {
+                    hits++;
+                }
+            }
+        }
+        long hitNanos = (System.nanoTime() - start) / (5L * n);
+
+        start = System.nanoTime();
+        long misses = 0;
+        for (int i = 0; i < n; i++) {
+            if (!bloomFilter.mightContain("missing" + i)) {
+                misses++;
+            }
+        }
+        long missNanos = (System.nanoTime() - start) / n;
+
+        // username String 자체는 제외한 index 구조 비용
+        System.out.println("bytesPerEntry = " + (after - before) / n);
+        System.out.println("lookupHit(ns) = " + hitNanos);
+        System.out.println("lookupMiss(ns) = " + missNanos);
+
+        assertThat(hits).isEqualTo(5L * n);
+        assertThat(misses).isGreaterThan(n * 95L / 100);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
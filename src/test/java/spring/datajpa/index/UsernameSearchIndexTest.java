@@ -0,0 +1,93 @@
+package spring.datajpa.index;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UsernameSearchIndexTest {
+
+    @Test
+    void prefixAndSubstring() {
+        UsernameSearchIndex index = new UsernameSearchIndex();
+        index.added("alice", 1);
+        index.added("alicia", 2);
+        index.added("bob", 3);
+        index.added("malice", 4);
+        index.added("alice", 5);
+
+        UsernameSearchIndex.Result prefix = index.startingWith("ali", 0, 10);
+        assertThat(prefix.ids()).containsExactly(1, 5, 2);
+        assertThat(prefix.total()).isEqualTo(3);
+
+        // page 2 (size 2)
+        assertThat(index.startingWith("ali", 2, 2).ids()).containsExactly(2);
+
+        // 부분 문자열은 id 순
+        UsernameSearchIndex.Result substring = index.containing("lice", 0, 10);
+        assertThat(substring.ids()).containsExactly(1, 4, 5);
+        assertThat(substring.total()).isEqualTo(3);
+        assertThat(substring.exact()).isTrue();
+        assertThat(index.containing("lice", 1, 1).ids()).containsExactly(4);
+        assertThat(index.startingWith("ali", 5, 10).ids()).isEmpty();
+
+        // gram 보다 짧은 검색어는 받지 않음
+        assertThatThrownBy(() -> index.containing("ob", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(index.containing("xyz", 0, 10).total()).isZero();
+
+        index.removed("alice", 1);
+        index.removed("malice", 4);
+        index.added("malcolm", 4);
+        assertThat(index.containing("lice", 0, 10).ids()).containsExactly(5);
+        assertThat(index.startingWith("mal", 0, 10).ids()).containsExactly(4);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    // ./gradlew loadTest -Dload.searchUsernames=10000000 -Dload.heap=12g
+    @Tag("load")
+    @Test
+    void benchmark() {
+        int n = Integer.getInteger("load.searchUsernames", 1_000_000);
+        Random random = new Random(42);
+
+        UsernameSearchIndex index = new UsernameSearchIndex();
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            index.added(randomName(random) + i, i + 1);
+        }
+        System.out.println("build(ms) = " + (System.nanoTime() - start) / 1_000_000);
+
+        int queries = 1_000;
+        String[] terms = new String[queries];
+        for (int i = 0; i < queries; i++) {
+            terms[i] = randomName(random).substring(0, 4);
+        }
+
+        long total = 0;
+        start = System.nanoTime();
+        for (String term : terms) {
+            total += index.startingWith(term, 0, 20).total();
+        }
+        System.out.println("prefix(us) = " + (System.nanoTime() - start) / 1_000 / queries);
+
+        start = System.nanoTime();
+        for (String term : terms) {
+            total += index.containing(term.substring(1), 0, 20).total();
+        }
+        System.out.println("substring(us) = " + (System.nanoTime() - start) / 1_000 / queries);
+
+        System.out.println("matches = " + total);
+        assertThat(index.size()).isEqualTo(n);
+    }
+
+    private static String randomName(Random random) {
+        char[] chars = new char[6];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,81 @@
+package spring.datajpa.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MemberJobRunnerTest {
+
+    @Autowired
+    MemberJobRunner memberJobRunner;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void resumeFromCheckpoint() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            members.add(new Member("job" + i, 500));
+        }
+        memberRepository.saveAll(members);
+        Long failAt = members.get(17).getId();
+
+        // processor 가 managed entity 를 바꾸고 chunk commit 시 반영
+        ChunkProcessor<Member, Member> agePlus = member -> {
+            if (member.getUsername().startsWith("job") && member.getAge() == 500) {
+                member.setAge(501);
+                return member;
+            }
+            return null;
+        };
+
+        assertThatThrownBy(() -> memberJobRunner.run(MemberJob.of("agePlus", 5, member -> {
+            if (member.getId().equals(failAt)) {
+                throw new IllegalStateException("boom");
+            }
+            return agePlus.process(member);
+        }, ChunkWriter.dirtyChecking()))).isInstanceOf(JobFailedException.class);
+
+        // 실패한 chunk 는 rollback, 그 전 chunk 까지는 반영
+        long done = members.stream()
+                .filter(m -> memberRepository.findById(m.getId()).orElseThrow().getAge() == 501)
+                .count();
+        assertThat(done).isBetween(1L, 17L);
+
+        JobResult result = memberJobRunner.run(MemberJob.of("agePlus", 5, agePlus, ChunkWriter.dirtyChecking()));
+
+        assertThat(result.resumed()).isTrue();
+        assertThat(result.written()).isEqualTo(30 - done);
+        assertThat(members).allSatisfy(m ->
+                assertThat(memberRepository.findById(m.getId()).orElseThrow().getAge()).isEqualTo(501));
+
+        // 끝난 job 을 다시 실행하면 처음부터
+        JobResult rerun = memberJobRunner.run(MemberJob.of("agePlus", 5, agePlus, ChunkWriter.dirtyChecking()));
+        assertThat(rerun.resumed()).isFalse();
+        assertThat(rerun.written()).isZero();
+    }
+
+    @Test
+    void parallelWorkers() {
+        long total = memberRepository.count();
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+
+        JobResult result = memberJobRunner.run(MemberJob.<Long>of("collectIds", 7, Member::getId, seen::addAll)
+                .withWorkers(4));
+
+        assertThat(result.processed()).isEqualTo(total);
+        assertThat(seen).hasSize((int) total);
+    }
+}
@@ -0,0 +1,100 @@
+package spring.datajpa.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.service.MemberService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 소수의 member 에 쓰기가 몰릴 때 optimistic (@Version + 재시도) vs pessimistic (select ... for update) 처리량
+// ./gradlew loadTest --tests '*ContentionBenchmarkTest' -Dload.hotMembers=10 -Dload.threads=16
+@Tag("load")
+@ActiveProfiles("load")
+@SpringBootTest
+class ContentionBenchmarkTest {
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void optimisticVsPessimistic() throws Exception {
+        int hotMembers = Integer.getInteger("load.hotMembers", 10);
+        int threads = Integer.getInteger("load.threads", 16);
+        int opsPerThread = Integer.getInteger("load.opsPerThread", 500);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < hotMembers; i++) {
+            members.add(new Member("contention" + i, 0));
+        }
+        memberRepository.saveAll(members);
+
+        AtomicLong optimisticFailures = new AtomicLong();
+        long optimistic = run(threads, opsPerThread, i -> {
+            try {
+                memberService.agePlus(members.get(i % hotMembers).getId(), 1);
+            } catch (OptimisticLockingFailureException e) {
+                optimisticFailures.incrementAndGet();
+            }
+        });
+        long pessimistic = run(threads, opsPerThread, i -> memberService.agePlusLocked("contention" + (i % hotMembers), 1));
+
+        long ops = (long) threads * opsPerThread;
+        long ageSum = memberRepository.findAllById(members.stream().map(Member::getId).toList()).stream()
+                .mapToLong(Member::getAge)
+                .sum();
+
+        System.out.println("optimistic(ops/s) = " + optimistic + ", gave up = " + optimisticFailures.get()
+                + ", retried = " + conflicts("retried") + ", exhausted = " + conflicts("exhausted"));
+        System.out.println("pessimistic(ops/s) = " + pessimistic);
+        // 실패 없이 끝난 변경은 하나도 유실되지 않음
+        assertThat(ageSum).isEqualTo(2 * ops - optimisticFailures.get());
+    }
+
+    private long run(int threads, int opsPerThread, IntConsumer op) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < opsPerThread; i++) {
+                    op.accept(offset + i);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return (long) threads * opsPerThread * 1_000_000_000L / elapsed;
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.counter("datajpa.optimistic.conflict",
+                "method", "MemberService.agePlus", "outcome", outcome).count();
+    }
+}
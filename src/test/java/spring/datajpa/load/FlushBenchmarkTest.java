@@ -0,0 +1,71 @@
+package spring.datajpa.load;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.dataset.DatasetGenerator;
+import spring.datajpa.dataset.DatasetSpec;
+import spring.datajpa.entity.Member;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// managed Member 가 많을 때 flush 비용, enhancement 유무 비교
+// ./gradlew clean loadTest --tests '*FlushBenchmarkTest' [-PnoEnhance] -Dload.flushMembers=50000
+@Tag("load")
+@ActiveProfiles("load")
+@SpringBootTest
+class FlushBenchmarkTest {
+
+    @Autowired
+    DatasetGenerator datasetGenerator;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void flushCost() {
+        int members = Integer.getInteger("load.flushMembers", 50_000);
+        int rounds = 20;
+        datasetGenerator.generate(new DatasetSpec(7, 100, members, 0, 0, 100));
+
+        boolean enhanced = SelfDirtinessTracker.class.isAssignableFrom(Member.class);
+        long[] nanos = new long[rounds];
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Member> loaded = em.createQuery("select m from Member m", Member.class)
+                    .setMaxResults(members)
+                    .getResultList();
+
+            for (int round = 0; round < rounds; round++) {
+                // 1% 만 변경
+                for (int i = round; i < loaded.size(); i += 100) {
+                    Member member = loaded.get(i);
+                    member.setAge(member.getAge() + 1);
+                }
+                long start = System.nanoTime();
+                em.flush();
+                nanos[round] = System.nanoTime() - start;
+            }
+            status.setRollbackOnly();
+        });
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (long n : nanos) {
+            best = Math.min(best, n);
+            total += n;
+        }
+        System.out.println("enhanced = " + enhanced);
+        System.out.println("flush(ms) best = " + best / 1_000_000.0 + ", avg = " + total / rounds / 1_000_000.0);
+        assertThat(nanos).allMatch(n -> n > 0);
+    }
+}
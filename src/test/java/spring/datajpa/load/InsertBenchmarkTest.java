@@ -0,0 +1,61 @@
+package spring.datajpa.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import spring.datajpa.entity.Item;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.ItemRepository;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 랜덤 UUID 문자열 id vs 시간 순 UUIDv7 id (Item), pooled sequence id (Member) insert 처리량
+// ./gradlew loadTest --tests '*InsertBenchmarkTest' -Dload.insertRows=1000000
+@Tag("load")
+@ActiveProfiles("load")
+@SpringBootTest
+class InsertBenchmarkTest {
+
+    static final int BATCH = 10_000;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void insertThroughput() {
+        int rows = Integer.getInteger("load.insertRows", 500_000);
+
+        long random = insert(rows, i -> new Item("r" + UUID.randomUUID()), itemRepository::saveAll);
+        long ordered = insert(rows, i -> Item.create(), itemRepository::saveAll);
+        long members = insert(rows, i -> new Member("insert" + i, i % 100), memberRepository::saveAll);
+
+        System.out.println("randomItem(rows/s) = " + random);
+        System.out.println("timeOrderedItem(rows/s) = " + ordered);
+        System.out.println("member(rows/s) = " + members);
+        assertThat(itemRepository.count()).isGreaterThanOrEqualTo(2L * rows);
+    }
+
+    private <T> long insert(int rows, IntFunction<T> factory, Consumer<List<T>> saveAll) {
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += BATCH) {
+            List<T> batch = new ArrayList<>(BATCH);
+            for (int i = from; i < Math.min(rows, from + BATCH); i++) {
+                batch.add(factory.apply(i));
+            }
+            saveAll.accept(batch);
+        }
+        return rows * 1_000_000_000L / (System.nanoTime() - start);
+    }
+}
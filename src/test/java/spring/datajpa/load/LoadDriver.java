@@ -0,0 +1,121 @@
+package spring.datajpa.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// 고정 thread 수로 duration 동안 요청, throughput 과 p50/p99/p999 latency 측정
+public class LoadDriver {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+
+    public LoadDriver(int threads, Duration warmup, Duration duration) {
+        this.threads = threads;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    public Result run(String name, Function<SplittableRandom, URI> uris) throws Exception {
+        runFor(warmup, uris);
+        Recorder[] recorders = runFor(duration, uris);
+
+        long errors = 0;
+        int count = 0;
+        for (Recorder recorder : recorders) {
+            errors += recorder.errors;
+            count += recorder.size;
+        }
+
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(latencies);
+
+        double throughput = count / (duration.toNanos() / 1_000_000_000.0);
+        return new Result(name, count, errors, throughput,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999));
+    }
+
+    private Recorder[] runFor(Duration runDuration, Function<SplittableRandom, URI> uris) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long deadline = System.nanoTime() + runDuration.toNanos();
+            Future<?>[] futures = new Future[threads];
+            Recorder[] recorders = new Recorder[threads];
+            for (int t = 0; t < threads; t++) {
+                Recorder recorder = new Recorder();
+                SplittableRandom random = new SplittableRandom(t);
+                recorders[t] = recorder;
+                futures[t] = executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(uris.apply(random)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                recorder.errors++;
+                            }
+                        } catch (Exception e) {
+                            recorder.errors++;
+                        }
+                        recorder.record(System.nanoTime() - start);
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return recorders;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public record Result(String name, long requests, long errors, double throughput, long p50, long p99, long p999) {
+
+        @Override
+        public String toString() {
+            return String.format("%-16s requests=%d errors=%d throughput=%.1f/s p50=%.3fms p99=%.3fms p999=%.3fms",
+                    name, requests, errors, throughput, p50 / 1e6, p99 / 1e6, p999 / 1e6);
+        }
+    }
+
+    private static class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size << 1);
+            }
+            latencies[size++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package spring.datajpa.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import spring.datajpa.importer.ImportResult;
+import spring.datajpa.importer.MemberCsvImporter;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ./gradlew loadTest -Dload.importRows=5000000
+@Tag("load")
+@ActiveProfiles("load")
+@SpringBootTest
+class MemberImportLoadTest {
+
+    @Autowired
+    MemberCsvImporter memberCsvImporter;
+
+    @Test
+    void importRows() throws Exception {
+        long rows = Long.getLong("load.importRows", 1_000_000);
+        int teams = Integer.getInteger("load.importTeams", 1_000);
+
+        Runtime runtime = Runtime.getRuntime();
+        ImportResult result = memberCsvImporter.importCsv(new CsvInputStream(rows, teams));
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+
+        System.out.println("result = " + result);
+        System.out.println("rowsPerMinute = " + rows * 60_000 / Math.max(1, result.elapsedMillis()));
+        System.out.println("usedHeap(MB) = " + usedHeap / 1024 / 1024);
+        assertThat(result.imported()).isEqualTo(rows);
+    }
+
+    // 파일 없이 한 줄씩 생성 (입력 자체가 heap 에 쌓이지 않도록)
+    static class CsvInputStream extends InputStream {
+
+        private final long rows;
+        private final int teams;
+        private long row = -1;
+        private byte[] line = new byte[0];
+        private int position;
+
+        CsvInputStream(long rows, int teams) {
+            this.rows = rows;
+            this.teams = teams;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (++row > rows) {
+                    return -1;
+                }
+                String text = row == 0 ? "username,age,teamName\n"
+                        : "imported" + row + "," + row % 100 + ",importTeam" + row % teams + "\n";
+                line = text.getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++];
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package spring.datajpa.load;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import spring.datajpa.dataset.DatasetGenerator;
+import spring.datajpa.dataset.DatasetResult;
+import spring.datajpa.dataset.DatasetSpec;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ./gradlew loadTest -Dload.members=10000000 -Dload.teams=100000 -Dload.threads=32
+@Tag("load")
+@ActiveProfiles("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MemberLoadTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    DatasetGenerator datasetGenerator;
+
+    DatasetResult dataset;
+    LoadDriver driver;
+
+    @BeforeAll
+    void setUp() {
+        DatasetSpec spec = new DatasetSpec(
+                Long.getLong("load.seed", 42),
+                Integer.getInteger("load.teams", 1_000),
+                Long.getLong("load.members", 100_000),
+                Integer.getInteger("load.items", 10_000),
+                Double.parseDouble(System.getProperty("load.teamSkew", "1.0")),
+                100);
+        dataset = datasetGenerator.generate(spec);
+        System.out.println("dataset = " + dataset);
+
+        driver = new LoadDriver(
+                Integer.getInteger("load.threads", 16),
+                Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5)),
+                Duration.ofSeconds(Long.getLong("load.seconds", 20)));
+    }
+
+    @Test
+    void members() throws Exception {
+        long pages = (dataset.lastMemberId() - dataset.firstMemberId() + 1) / 20;
+        LoadDriver.Result result = driver.run("/members",
+                random -> uri("/members?size=20&page=" + random.nextLong(Math.max(pages, 1))));
+        report(result);
+    }
+
+    @Test
+    void memberById() throws Exception {
+        LoadDriver.Result result = driver.run("/members/{id}",
+                random -> uri("/members/" + randomMemberId(random)));
+        report(result);
+    }
+
+    @Test
+    void memberByIdDomainClassConverter() throws Exception {
+        LoadDriver.Result result = driver.run("/members2/{id}",
+                random -> uri("/members2/" + randomMemberId(random)));
+        report(result);
+    }
+
+    private long randomMemberId(SplittableRandom random) {
+        return random.nextLong(dataset.firstMemberId(), dataset.lastMemberId() + 1);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void report(LoadDriver.Result result) {
+        System.out.println("result = " + result);
+        assertThat(result.errors()).isZero();
+    }
+}
@@ -0,0 +1,73 @@
+package spring.datajpa.loader;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchLoaderTest {
+
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    ExecutorService dispatcher = Executors.newFixedThreadPool(2);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    @Test
+    void batchesWithinWindow() throws Exception {
+        BatchLoader<Long, String> loader = loader(Duration.ofMillis(50), 100);
+
+        List<CompletableFuture<Optional<String>>> futures = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            futures.add(loader.load(id));
+        }
+        CompletableFuture<Optional<String>> missing = loader.load(-1L);
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(1, TimeUnit.SECONDS)).contains("value" + (i + 1));
+        }
+        assertThat(missing.get(1, TimeUnit.SECONDS)).isEmpty();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void flushesAtMaxBatchSize() throws Exception {
+        BatchLoader<Long, String> loader = loader(Duration.ofSeconds(10), 5);
+
+        List<CompletableFuture<Optional<String>>> futures = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            futures.add(loader.load(id));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, TimeUnit.SECONDS);
+
+        DistributionSummary batchSizes = meterRegistry.get("datajpa.batch-loader.batch.size").summary();
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(batchSizes.max()).isEqualTo(5);
+    }
+
+    private BatchLoader<Long, String> loader(Duration window, int maxBatchSize) {
+        return new BatchLoader<>("test", ids -> {
+            calls.incrementAndGet();
+            Map<Long, String> result = new HashMap<>();
+            for (Long id : ids) {
+                if (id > 0) {
+                    result.put(id, "value" + id);
+                }
+            }
+            return result;
+        }, window, maxBatchSize, scheduler, dispatcher, meterRegistry);
+    }
+}
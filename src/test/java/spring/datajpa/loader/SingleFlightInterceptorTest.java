@@ -0,0 +1,59 @@
+package spring.datajpa.loader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightInterceptorTest {
+
+    interface Lookup {
+        String find(String username);
+    }
+
+    @Test
+    void coalescesIdenticalCalls() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Lookup target = username -> {
+            executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "result-" + username;
+        };
+
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Lookup.class);
+        proxyFactory.addAdvice(new SingleFlightInterceptor(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)));
+        Lookup lookup = (Lookup) proxyFactory.getProxy();
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(executor.submit(() -> lookup.find("member1")));
+        }
+        Future<String> other = executor.submit(() -> lookup.find("member2"));
+
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("result-member1");
+        }
+        assertThat(other.get(1, TimeUnit.SECONDS)).isEqualTo("result-member2");
+        assertThat(executions.get()).isEqualTo(2);
+
+        executor.shutdownNow();
+    }
+}
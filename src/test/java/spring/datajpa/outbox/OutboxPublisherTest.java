@@ -0,0 +1,78 @@
+package spring.datajpa.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.OutboxEventType;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OutboxPublisherTest {
+
+    @Autowired
+    OutboxPublisher outboxPublisher;
+
+    @Autowired
+    InMemoryOutboxSink sink;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void drain() {
+        outboxPublisher.publishPending();
+        sink.clear();
+    }
+
+    @Test
+    void publishInOrderPerAggregate() {
+        Team team = teamRepository.save(new Team("outboxTeam"));
+        Member member = memberRepository.save(new Member("outbox1", 70, team));
+        member.setUsername("outbox2");
+        memberRepository.save(member);
+        memberRepository.bulkAgePlus(70);
+        memberRepository.delete(memberRepository.findById(member.getId()).orElseThrow());
+
+        outboxPublisher.publishPending();
+
+        assertThat(eventTypes("Team", team.getId())).containsExactly(OutboxEventType.CREATED);
+        assertThat(eventTypes("Member", member.getId())).containsExactly(
+                OutboxEventType.CREATED, OutboxEventType.UPDATED, OutboxEventType.UPDATED, OutboxEventType.DELETED);
+        assertThat(outboxPublisher.publishPending()).isZero();
+    }
+
+    @Test
+    void rolledBackChangesAreNotPublished() {
+        Long id = transactionTemplate.execute(status -> {
+            Member member = memberRepository.saveAndFlush(new Member("outboxRollback", 10));
+            status.setRollbackOnly();
+            return member.getId();
+        });
+
+        outboxPublisher.publishPending();
+
+        assertThat(eventTypes("Member", id)).isEmpty();
+    }
+
+    private List<OutboxEventType> eventTypes(String aggregateType, Long aggregateId) {
+        return sink.messages().stream()
+                .filter(m -> m.aggregateType().equals(aggregateType) && m.aggregateId() == aggregateId)
+                .map(OutboxMessage::eventType)
+                .toList();
+    }
+}
@@ -0,0 +1,95 @@
+package spring.datajpa.pool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControllerTest {
+
+    final AtomicLong clock = new AtomicLong();
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final PoolWaitMonitor monitor = new PoolWaitMonitor(Duration.ofSeconds(1), clock::get);
+    final AdmissionInterceptor interceptor =
+            new AdmissionInterceptor(new AdmissionController(monitor, Duration.ofMillis(200)), meterRegistry);
+
+    // getConnection() 마다 latency 만큼 시간이 흐르는 db 대역
+    long latencyMillis;
+    final AbstractDataSource slowDataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> method.getName().equals("isClosed") ? false : null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    };
+    final InstrumentedDataSource dataSource = new InstrumentedDataSource(slowDataSource, monitor, meterRegistry, clock::get);
+
+    @Test
+    void shedLoadWhilePoolIsSlow() throws Exception {
+        latencyMillis = 5;
+        for (int i = 0; i < 10; i++) {
+            dataSource.getConnection().close();
+        }
+        assertThat(preHandle("plain").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        // db 가 느려짐
+        latencyMillis = 800;
+        for (int i = 0; i < 5; i++) {
+            dataSource.getConnection().close();
+        }
+        MockHttpServletResponse rejected = preHandle("plain");
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse degraded = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request, degraded, handler("degradable"))).isTrue();
+        assertThat(AdmissionInterceptor.isDegraded(new ServletWebRequest(request))).isTrue();
+        assertThat(degraded.getHeader("X-Degraded")).isEqualTo("true");
+
+        // 새 요청이 없어도 시간이 지나면 다시 받음
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(preHandle("plain").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        assertThat(meterRegistry.get("datajpa.pool.wait").tag("endpoint", InstrumentedDataSource.NO_ENDPOINT).timer().count())
+                .isEqualTo(15);
+        assertThat(meterRegistry.get("datajpa.admission").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse preHandle(String method) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest(), response, handler(method));
+        return response;
+    }
+
+    private HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(method));
+    }
+
+    static class Handlers {
+        public void plain() {
+        }
+
+        @Degradable
+        public void degradable() {
+        }
+    }
+}
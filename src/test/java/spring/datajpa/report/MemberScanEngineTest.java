@@ -0,0 +1,55 @@
+package spring.datajpa.report;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "datajpa.scan.range-size=7")
+class MemberScanEngineTest {
+
+    @Autowired
+    MemberScanEngine memberScanEngine;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    void scan() {
+        Team team = teamRepository.save(new Team("scanTeam"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Member member = new Member("scan" + i, i);
+            member.setTeam(team);
+            members.add(member);
+        }
+        memberRepository.saveAll(members);
+
+        Long count = memberScanEngine.scan(MemberReports.count());
+        Map<String, Double> averageAge = memberScanEngine.scan(MemberReports.averageAgeByTeam());
+        Map<Integer, Long> buckets = memberScanEngine.scan(MemberReports.countByAgeBucket(10));
+
+        assertThat(count).isEqualTo(memberRepository.count());
+        assertThat(averageAge.get("scanTeam")).isEqualTo(24.5);
+        assertThat(buckets.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(count);
+    }
+
+    @Test
+    void ageBucketSizeMustBePositive() {
+        assertThatThrownBy(() -> MemberReports.countByAgeBucket(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MemberReports.countByAgeBucket(-10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
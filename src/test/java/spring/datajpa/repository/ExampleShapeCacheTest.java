@@ -0,0 +1,110 @@
+package spring.datajpa.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import spring.datajpa.entity.Member;
+import spring.datajpa.dataset.DatasetGenerator;
+import spring.datajpa.dataset.DatasetSpec;
+import spring.datajpa.entity.Team;
+import spring.datajpa.index.UsernameSearchIndex;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExampleShapeCacheTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    DatasetGenerator datasetGenerator;
+
+    @Autowired
+    UsernameSearchIndex usernameSearchIndex;
+
+    @Test
+    void sameShapeReusesQuery() {
+        Team team = teamRepository.save(new Team("qbeTeam"));
+        memberRepository.saveAll(List.of(
+                new Member("qbeAlice", 10, team),
+                new Member("qbeAlicia", 20, team),
+                new Member("qbeBob", 30, team)));
+
+        ExampleMatcher ignoreAge = ExampleMatcher.matching().withIgnorePaths("age");
+        assertThat(memberRepository.findAll(Example.of(probe("qbeAlice", "qbeTeam"), ignoreAge)))
+                .extracting(Member::getUsername).containsExactly("qbeAlice");
+
+        double hits = count("datajpa.qbe.shape", "result", "hit");
+        // 값만 다르고 shape 은 같음
+        assertThat(memberRepository.findAll(Example.of(probe("qbeBob", "qbeTeam"), ignoreAge)))
+                .extracting(Member::getUsername).containsExactly("qbeBob");
+        assertThat(count("datajpa.qbe.shape", "result", "hit")).isEqualTo(hits + 1);
+
+        // 다른 team 이면 없음
+        assertThat(memberRepository.count(Example.of(probe("qbeBob", "otherTeam"), ignoreAge))).isZero();
+
+        // contains -> username index 의 id 로
+        double rewrites = count("datajpa.qbe.index.rewrite");
+        ExampleMatcher contains = ignoreAge.withMatcher("username", m -> m.contains());
+        Page<Member> page = memberRepository.findAll(Example.of(probe("Alic", null), contains),
+                PageRequest.of(0, 1, Sort.by("username")));
+        assertThat(page.getContent()).extracting(Member::getUsername).containsExactly("qbeAlice");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(count("datajpa.qbe.index.rewrite")).isGreaterThan(rewrites);
+
+        // ignoreCase 는 index 를 못 탐 -> 그대로 실행하고 표시만
+        ExampleMatcher ignoreCase = ignoreAge.withIgnoreCase("username");
+        assertThat(memberRepository.findAll(Example.of(probe("QBEBOB", "qbeTeam"), ignoreCase)))
+                .extracting(Member::getUsername).containsExactly("qbeBob");
+        assertThat(count("datajpa.qbe.unindexed", "path", "Member.username", "matcher", "DEFAULT")).isPositive();
+    }
+
+    // jdbc 로 넣은 member 도 찾음: 넣는 동안은 index 대신 like, 끝나면 다시 load 된 index
+    @Test
+    void findsMembersInsertedThroughJdbc() {
+        datasetGenerator.generate(new DatasetSpec(50, 1, 20, 0, 0, 100));
+        ExampleMatcher contains = ExampleMatcher.matching().withIgnorePaths("age")
+                .withMatcher("username", m -> m.contains());
+        Example<Member> example = Example.of(probe("ber50_1", null), contains);
+
+        double rewrites = count("datajpa.qbe.index.rewrite");
+        assertThat(memberRepository.count(example)).isEqualTo(11);
+        assertThat(count("datajpa.qbe.index.rewrite")).isGreaterThan(rewrites);
+
+        usernameSearchIndex.invalidate();
+        try {
+            rewrites = count("datajpa.qbe.index.rewrite");
+            assertThat(memberRepository.findAll(example)).hasSize(11);
+            assertThat(count("datajpa.qbe.index.rewrite")).isEqualTo(rewrites);
+        } finally {
+            usernameSearchIndex.load();
+        }
+    }
+
+    private static Member probe(String username, String teamName) {
+        Member member = new Member(username);
+        if (teamName != null) {
+            member.setTeam(new Team(teamName));
+        }
+        return member;
+    }
+
+    private double count(String name, String... tags) {
+        return meterRegistry.counter(name, tags).count();
+    }
+}
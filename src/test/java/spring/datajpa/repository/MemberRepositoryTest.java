@@ -13,6 +13,7 @@ import spring.datajpa.entity.Member;
 import spring.datajpa.entity.Team;
 import spring.datajpa.dto.MemberDto;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -426,5 +427,63 @@ class MemberRepositoryTest {
             System.out.println("memberProjection.getTeamName() = " + memberProjection.getTeamName());
         }
 
+        assertThat(result.getContent()).extracting(MemberProjection::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void nativeDtoKeyset() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("m" + i, i, i % 2 == 0 ? teamA : teamB));
+        }
+
+        em.flush();
+        em.clear();
+
+        List<Long> ids = new ArrayList<>();
+        Long lastId = 0L;
+        List<MemberDto> chunk;
+        while (!(chunk = repository.findMemberDtoByNative(lastId, 2)).isEmpty()) {
+            for (MemberDto dto : chunk) {
+                ids.add(dto.getId());
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+        }
+
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+        assertThat((long) ids.size()).isEqualTo(repository.count());
+    }
+
+    @Test
+    void bulkDelete() {
+
+        Team teamA = new Team("bulkTeamA");
+        Team teamB = new Team("bulkTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 2_500; i++) {
+            em.persist(new Member("bulk" + i, i % 50, teamA));
+        }
+        em.persist(new Member("bulkKeep", 10, teamB));
+        em.persist(new Member("bulkProbe", 77, teamB));
+
+        long deleted = repository.bulkDelete(MemberSpec.teamId(teamA.getId()));
+
+        assertThat(deleted).isEqualTo(2_500);
+        assertThat(repository.findAll(MemberSpec.teamId(teamA.getId()))).isEmpty();
+        assertThat(em.find(Team.class, teamA.getId()).getMembers()).isEmpty();
+
+        Member probe = new Member("bulkProbe");
+        ExampleMatcher matcher = ExampleMatcher.matching().withIgnorePaths("age");
+        assertThat(repository.bulkDelete(Example.of(probe, matcher))).isEqualTo(1);
+        assertThat(repository.findAll(MemberSpec.teamId(teamB.getId())))
+                .extracting(Member::getUsername)
+                .containsExactly("bulkKeep");
     }
 }
@@ -0,0 +1,22 @@
+package spring.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeQueryValidatorTest {
+
+    @Test
+    void joinPredicate() {
+        assertThat(NativeQueryValidator.hasJoinPredicates("select * from Member m left join Team t on m.team_id = t.team_id")).isTrue();
+        assertThat(NativeQueryValidator.hasJoinPredicates("select * from Member m left join Team t")).isFalse();
+        assertThat(NativeQueryValidator.hasJoinPredicates("select * from Member m join Team t using (team_id) join Item i")).isFalse();
+        assertThat(NativeQueryValidator.hasJoinPredicates("select * from Member m cross join Team t")).isTrue();
+        assertThat(NativeQueryValidator.hasJoinPredicates("select * from Member where username = ?")).isTrue();
+    }
+
+    @Test
+    void repositories() {
+        NativeQueryValidator.validate(MemberRepository.class);
+    }
+}
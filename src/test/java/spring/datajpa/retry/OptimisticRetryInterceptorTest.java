@@ -0,0 +1,53 @@
+package spring.datajpa.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import spring.datajpa.entity.Member;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryInterceptorTest {
+
+    interface Updater {
+        @OptimisticRetry(maxAttempts = 3, backoffMillis = 1)
+        int update(int conflicts);
+    }
+
+    @Test
+    void retriesUntilMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        Updater target = conflicts -> {
+            if (attempts.incrementAndGet() <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException(Member.class, 1L);
+            }
+            return attempts.get();
+        };
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Updater.class);
+        proxyFactory.addAdvice(new OptimisticRetryInterceptor(beanFactory.getBeanProvider(MeterRegistry.class)));
+        Updater updater = (Updater) proxyFactory.getProxy();
+
+        // 2번 충돌 -> 3번째 성공
+        assertThat(updater.update(2)).isEqualTo(3);
+        assertThat(registry.counter("datajpa.optimistic.conflict", "method", "Updater.update", "outcome", "retried").count())
+                .isEqualTo(2);
+
+        attempts.set(0);
+        assertThatThrownBy(() -> updater.update(5)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(registry.counter("datajpa.optimistic.conflict", "method", "Updater.update", "outcome", "exhausted").count())
+                .isEqualTo(1);
+    }
+}
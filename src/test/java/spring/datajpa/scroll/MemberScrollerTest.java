@@ -0,0 +1,86 @@
+package spring.datajpa.scroll;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import spring.datajpa.dto.MemberDto;
+import spring.datajpa.dto.MemberPage;
+import spring.datajpa.entity.Member;
+import spring.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MemberScrollerTest {
+
+    static final int AGE = 777;
+
+    @Autowired
+    MemberScroller memberScroller;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        if (memberRepository.findSliceByAge(AGE, Pageable.unpaged()).isEmpty()) {
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                members.add(new Member("scroll" + i, AGE));
+            }
+            memberRepository.saveAll(members);
+        }
+    }
+
+    @Test
+    void scrollWithPrefetch() {
+        double hitsBefore = hits();
+
+        List<Long> ids = new ArrayList<>();
+        MemberPage page = memberScroller.scroll(AGE, 10);
+        page.getContent().forEach(dto -> ids.add(dto.getId()));
+        while (page.getCursor() != null) {
+            page = memberScroller.next(page.getCursor());
+            page.getContent().forEach(dto -> ids.add(dto.getId()));
+        }
+
+        assertThat(ids).hasSize(25).doesNotHaveDuplicates().isSorted();
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(hits() - hitsBefore).isEqualTo(2);
+    }
+
+    @Test
+    void cancelledCursorFallsBackToQuery() {
+        MemberPage first = memberScroller.scroll(AGE, 10);
+        memberScroller.cancel(first.getCursor());
+
+        MemberPage second = memberScroller.next(first.getCursor());
+
+        assertThat(second.getContent()).extracting(MemberDto::getId)
+                .hasSize(10)
+                .allSatisfy(id -> assertThat(id).isGreaterThan(first.getContent().get(9).getId()));
+    }
+
+    @Test
+    void tamperedCursorIsClampedOrRejected() {
+        String huge = new ScrollCursor("tampered", AGE, 1_000_000, 0).encode();
+        assertThat(memberScroller.next(huge).getContent()).hasSizeLessThanOrEqualTo(100);
+
+        String negative = new ScrollCursor("tampered", AGE, 10, -1).encode();
+        assertThatThrownBy(() -> memberScroller.next(negative)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private double hits() {
+        return meterRegistry.get("datajpa.scroll.prefetch").tag("result", "hit").counter().count();
+    }
+}
@@ -0,0 +1,90 @@
+package spring.datajpa.shard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.MemberSpec;
+import spring.datajpa.repository.TeamRepository;
+import spring.datajpa.service.MemberService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "datajpa.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+class ShardedMemberRepositoryTest {
+
+    @Autowired
+    ShardedMemberRepository repository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    ShardRouter shardRouter;
+
+    @Test
+    void routeAndScatterGather() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        assertThat(shardRouter.shardForTeam(teamA.getId())).isNotEqualTo(shardRouter.shardForTeam(teamB.getId()));
+
+        long before = memberRepository.count();
+
+        Member memberA1 = memberRepository.save(new Member("shardA1", 10, teamA));
+        memberRepository.save(new Member("shardA2", 20, teamA));
+        memberRepository.save(new Member("shardB1", 30, teamB));
+
+        assertThat(memberRepository.count()).isEqualTo(before + 3);
+        assertThat(teamRepository.findById(teamB.getId())).isPresent();
+        assertThat(repository.findByTeam(teamA.getId(), MemberSpec.username("shardA1"))).hasSize(1);
+        assertThat(repository.findByTeam(teamB.getId(), MemberSpec.username("shardA1"))).isEmpty();
+        assertThat(repository.findTeamWithMembers(teamA.getId()).get().getMembers()).hasSize(2);
+
+        Page<Member> page = memberRepository.findAll(PageRequest.of(0, 1000, Sort.by(Sort.Direction.DESC, "username")));
+        List<String> usernames = page.getContent().stream().map(Member::getUsername).toList();
+
+        assertThat(page.getTotalElements()).isEqualTo(before + 3);
+        assertThat(usernames).contains("shardA1", "shardA2", "shardB1");
+        assertThat(usernames).isSortedAccordingTo((a, b) -> b.compareTo(a));
+
+        // 다음 page 는 merge 된 순서에서 이어짐
+        Page<Member> first = memberRepository.findAll(PageRequest.of(0, 2, Sort.by("username")));
+        Page<Member> second = memberRepository.findAll(PageRequest.of(1, 2, Sort.by("username")));
+        List<String> sorted = usernames.stream().sorted().toList();
+        assertThat(first.getContent()).extracting(Member::getUsername).isEqualTo(sorted.subList(0, 2));
+        assertThat(second.getContent()).extracting(Member::getUsername).isEqualTo(sorted.subList(2, Math.min(4, sorted.size())));
+    }
+
+    @Test
+    void changeTeamMovesMemberToTargetShard() {
+        Team teamA = teamRepository.save(new Team("moveA"));
+        Team teamB = teamRepository.save(new Team("moveB"));
+        Member member = memberRepository.save(new Member("mover", 40, teamA));
+        long before = memberRepository.count();
+
+        memberService.changeTeam(member.getId(), teamB.getId());
+
+        assertThat(repository.findByTeam(teamA.getId(), MemberSpec.username("mover"))).isEmpty();
+        assertThat(repository.findByTeam(teamB.getId(), MemberSpec.username("mover")))
+                .extracting(Member::getId)
+                .containsExactly(member.getId());
+        assertThat(memberRepository.findById(member.getId()).get().getTeam().getId()).isEqualTo(teamB.getId());
+        assertThat(memberRepository.count()).isEqualTo(before);
+    }
+}
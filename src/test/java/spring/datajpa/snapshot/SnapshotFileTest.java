@@ -0,0 +1,60 @@
+package spring.datajpa.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeAndMap() throws Exception {
+        LocalDateTime modified = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000);
+        List<CachedTeam> teams = List.of(
+                new CachedTeam(20, "teamB", modified),
+                new CachedTeam(10, "팀A", null));
+        List<CachedMember> members = new ArrayList<>();
+        for (long id = 1000; id > 0; id--) {
+            members.add(new CachedMember(id * 2, "member" + id, (int) (id % 100), id % 3 == 0 ? null : 10L, modified));
+        }
+
+        Path path = dir.resolve("reference.bin");
+        SnapshotFile.write(path, teams, members);
+        SnapshotFile snapshot = SnapshotFile.open(path).orElseThrow();
+
+        assertThat(snapshot.teamCount()).isEqualTo(2);
+        assertThat(snapshot.memberCount()).isEqualTo(1000);
+        assertThat(snapshot.team(10)).contains(new CachedTeam(10, "팀A", null));
+        assertThat(snapshot.team(20)).contains(new CachedTeam(20, "teamB", modified));
+        assertThat(snapshot.team(15)).isEmpty();
+
+        assertThat(snapshot.member(2)).contains(new CachedMember(2, "member1", 1, 10L, modified));
+        assertThat(snapshot.member(6)).contains(new CachedMember(6, "member3", 3, null, modified));
+        assertThat(snapshot.member(2000)).contains(new CachedMember(2000, "member1000", 0, 10L, modified));
+        assertThat(snapshot.member(3)).isEmpty();
+        assertThat(snapshot.member(2002)).isEmpty();
+
+        List<Long> ids = new ArrayList<>();
+        snapshot.forEachMember(member -> ids.add(member.id()));
+        assertThat(ids).hasSize(1000).isSorted();
+        assertThat(Files.exists(dir.resolve("reference.bin.tmp"))).isFalse();
+    }
+
+    @Test
+    void missingOrForeignFileIsIgnored() throws Exception {
+        assertThat(SnapshotFile.open(dir.resolve("none.bin"))).isEmpty();
+
+        Path foreign = dir.resolve("foreign.bin");
+        Files.write(foreign, new byte[64]);
+        assertThat(SnapshotFile.open(foreign)).isEmpty();
+    }
+}
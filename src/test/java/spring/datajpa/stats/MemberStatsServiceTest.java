@@ -0,0 +1,61 @@
+package spring.datajpa.stats;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import spring.datajpa.entity.Member;
+import spring.datajpa.entity.Team;
+import spring.datajpa.entity.TeamAgeStats;
+import spring.datajpa.repository.MemberRepository;
+import spring.datajpa.repository.TeamAgeStatsRepository;
+import spring.datajpa.repository.TeamRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberStatsServiceTest {
+
+    @Autowired
+    MemberStatsService memberStatsService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    TeamAgeStatsRepository teamAgeStatsRepository;
+
+    @Test
+    void incrementalStats() {
+        Team team = teamRepository.save(new Team("statsTeam"));
+        Member m1 = memberRepository.save(new Member("stats1", 10, team));
+        memberRepository.save(new Member("stats2", 20, team));
+        Member m3 = memberRepository.save(new Member("stats3", 30, team));
+
+        assertStats(team, 3, 60, 10, 30);
+
+        m1.setAge(15);
+        memberRepository.save(m1);
+        assertStats(team, 3, 65, 15, 30);
+
+        memberRepository.delete(m3);
+        assertStats(team, 2, 35, 15, 20);
+
+        memberRepository.bulkAgePlus(18);
+        assertStats(team, 2, 36, 15, 21);
+
+        memberStatsService.rebuild();
+        assertStats(team, 2, 36, 15, 21);
+    }
+
+    private void assertStats(Team team, long count, long sum, int min, int max) {
+        memberStatsService.refreshStale();
+        TeamAgeStats stats = teamAgeStatsRepository.findById(team.getId()).orElseThrow();
+        assertThat(stats.getMemberCount()).isEqualTo(count);
+        assertThat(stats.getAgeSum()).isEqualTo(sum);
+        assertThat(stats.getMinAge()).isEqualTo(min);
+        assertThat(stats.getMaxAge()).isEqualTo(max);
+    }
+}
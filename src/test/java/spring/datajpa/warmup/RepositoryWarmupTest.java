@@ -0,0 +1,33 @@
+package spring.datajpa.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import spring.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.warmup.enabled=true")
+class RepositoryWarmupTest {
+
+    @Autowired
+    RepositoryWarmup repositoryWarmup;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void everyQueryMethodRuns() {
+        long count = memberRepository.count();
+
+        WarmupResult result = repositoryWarmup.warmup();
+
+        assertThat(result.failures()).isEmpty();
+        assertThat(result.executed()).isGreaterThan(0);
+        assertThat(result.compiled()).isGreaterThan(0);
+        assertThat(result.executed() + result.skipped().size()).isEqualTo(result.methods());
+        // 조회만, 데이터는 그대로
+        assertThat(result.skipped()).contains("JobCheckpointRepository.deleteByJobName");
+        assertThat(memberRepository.count()).isEqualTo(count);
+    }
+}